@@ -0,0 +1,4 @@
+-- Keyset pagination for GET /api/messages/conversation/{otherUserId}
+-- Pages are read as ORDER BY created_at DESC, id DESC within one sender/receiver pair.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_messages_sender_receiver_created
+    ON messages (sender_id, receiver_id, created_at, id);
@@ -0,0 +1,16 @@
+-- Canonical conversation key for direct messages: "<lowerUserId>:<higherUserId>".
+-- Replaces the OR-predicate lookup (sender=a AND receiver=b OR sender=b AND receiver=a)
+-- with a single range scan on (conversation_key, created_at, id).
+ALTER TABLE messages ADD COLUMN IF NOT EXISTS conversation_key VARCHAR(40);
+
+UPDATE messages
+SET conversation_key = LEAST(sender_id, receiver_id) || ':' || GREATEST(sender_id, receiver_id)
+WHERE conversation_key IS NULL;
+
+ALTER TABLE messages ALTER COLUMN conversation_key SET NOT NULL;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_messages_conversation_created
+    ON messages (conversation_key, created_at, id);
+
+-- Superseded by idx_messages_conversation_created (see 001)
+DROP INDEX CONCURRENTLY IF EXISTS idx_messages_sender_receiver_created;
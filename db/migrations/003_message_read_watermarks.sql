@@ -0,0 +1,24 @@
+-- Per-conversation read watermarks replace the per-row messages.is_read flag.
+CREATE TABLE IF NOT EXISTS message_read_watermarks (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    peer_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    last_read_message_id BIGINT NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (user_id, peer_id)
+);
+
+-- Seed from the legacy flags: highest message each receiver has read from each sender
+INSERT INTO message_read_watermarks (user_id, peer_id, last_read_message_id, updated_at)
+SELECT receiver_id, sender_id, MAX(id), now()
+FROM messages
+WHERE is_read = TRUE
+GROUP BY receiver_id, sender_id
+ON CONFLICT (user_id, peer_id) DO NOTHING;
+
+-- Unread lookups: messages received by a user above a watermark
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_messages_receiver
+    ON messages (receiver_id, id);
+
+-- messages.is_read is no longer read or written; drop it once all instances run this version:
+-- ALTER TABLE messages DROP COLUMN is_read;
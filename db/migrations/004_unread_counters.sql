@@ -0,0 +1,18 @@
+-- Per-sender unread badge counters, kept in memory and flushed here by UnreadCounterService.
+CREATE TABLE IF NOT EXISTS unread_counters (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    peer_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    unread_count INTEGER NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (user_id, peer_id)
+);
+
+-- Seed from the read watermarks (003)
+INSERT INTO unread_counters (user_id, peer_id, unread_count, updated_at)
+SELECT m.receiver_id, m.sender_id, COUNT(*), now()
+FROM messages m
+LEFT JOIN message_read_watermarks w ON w.user_id = m.receiver_id AND w.peer_id = m.sender_id
+WHERE m.id > COALESCE(w.last_read_message_id, 0)
+GROUP BY m.receiver_id, m.sender_id
+ON CONFLICT (user_id, peer_id) DO UPDATE SET unread_count = EXCLUDED.unread_count;
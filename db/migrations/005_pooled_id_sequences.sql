@@ -0,0 +1,28 @@
+-- Entities now take ids from <table>_seq with Hibernate's pooled optimizer (allocationSize = 50),
+-- which lets hibernate.jdbc.batch_size batch inserts. IDENTITY columns forced one round trip per row.
+--
+-- Pooled semantics: a nextval value v stands for the id block (v - 50, v], so each sequence is
+-- positioned at MAX(id) and the next block starts right after the existing rows.
+DO $$
+DECLARE
+    t TEXT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY[
+        'users', 'contacts', 'messages', 'message_read_watermarks', 'unread_counters',
+        'servers', 'channels', 'channel_messages',
+        'user_wallet', 'transactions', 'store_items', 'user_inventory'
+    ] LOOP
+        IF to_regclass(t) IS NULL THEN
+            CONTINUE;
+        END IF;
+
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I START WITH 1 INCREMENT BY 50', t || '_seq');
+        -- Never move the sequence backwards, so re-running the script is harmless
+        EXECUTE format('SELECT setval(%L, GREATEST(COALESCE(MAX(id), 0), 1, (SELECT last_value FROM %I))) FROM %I',
+                       t || '_seq', t || '_seq', t);
+
+        -- Drop IDENTITY / BIGSERIAL defaults; manual inserts keep working through the new sequence
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', t);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', t, t || '_seq');
+    END LOOP;
+END $$;
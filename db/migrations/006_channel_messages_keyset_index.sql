@@ -0,0 +1,4 @@
+-- Channel history is read newest-first with a (created_at, id) keyset cursor;
+-- this index turns every page into a single bounded range scan.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_channel_messages_channel_created
+    ON channel_messages (channel_id, created_at, id);
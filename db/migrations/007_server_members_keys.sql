@@ -0,0 +1,22 @@
+-- server_members is now mapped as its own entity (ServerMember) keyed by (server_id, user_id).
+-- Tables generated from the old @ManyToMany list have no key and may hold duplicate rows.
+DELETE FROM server_members a
+USING server_members b
+WHERE a.ctid < b.ctid AND a.server_id = b.server_id AND a.user_id = b.user_id;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conrelid = 'server_members'::regclass AND contype = 'p') THEN
+        ALTER TABLE server_members ADD PRIMARY KEY (server_id, user_id);
+    END IF;
+END $$;
+
+-- "Which servers is this user in" (GET /api/servers)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_server_members_user
+    ON server_members (user_id, server_id);
+
+-- Owners were never inserted as members of their own server
+INSERT INTO server_members (server_id, user_id)
+SELECT id, owner_id FROM servers
+ON CONFLICT (server_id, user_id) DO NOTHING;
@@ -0,0 +1,4 @@
+-- The server sidebar (/api/servers/overview) loads the channels of all of a user's
+-- servers at once, ordered by position; this index serves it as one ordered scan.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_channels_server_position
+    ON channels (server_id, position);
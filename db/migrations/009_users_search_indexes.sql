@@ -0,0 +1,13 @@
+-- User search (/api/users/search) matches display-name prefixes first, then substrings.
+-- Prefix pages walk this btree in order: the C collation makes it usable for both
+-- LIKE 'q%' and the ORDER BY of the search queries.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_display_name_prefix
+    ON users ((lower(display_name) COLLATE "C"), id)
+    WHERE is_active IS NOT FALSE;
+
+-- Substring matches (LIKE '%q%', queries of 3+ characters) use trigrams.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_display_name_trgm
+    ON users USING gin (lower(display_name) gin_trgm_ops)
+    WHERE is_active IS NOT FALSE;
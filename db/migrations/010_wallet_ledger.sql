@@ -0,0 +1,43 @@
+-- transactions becomes the wallet ledger: append-only, numbered per user (seq) and carrying the
+-- balance after each entry. user_wallet.last_seq is the head the next entry is numbered from.
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS seq BIGINT;
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS balance_after INTEGER;
+ALTER TABLE user_wallet ADD COLUMN IF NOT EXISTS last_seq BIGINT NOT NULL DEFAULT 0;
+
+-- Number the existing history in (created_at, id) order. Running balances are anchored on the
+-- current wallet balance (0 without a wallet), so the latest entry agrees with user_wallet.coins.
+WITH deltas AS (
+    SELECT id, user_id, created_at,
+           CASE WHEN type IN ('PURCHASE', 'GIFT_SENT') THEN -amount ELSE amount END AS delta
+    FROM transactions
+), entries AS (
+    SELECT d.id,
+           ROW_NUMBER() OVER w AS seq,
+           COALESCE(uw.coins, 0) - SUM(d.delta) OVER (PARTITION BY d.user_id) + SUM(d.delta) OVER w AS balance_after
+    FROM deltas d
+    LEFT JOIN user_wallet uw ON uw.user_id = d.user_id
+    WINDOW w AS (PARTITION BY d.user_id ORDER BY d.created_at, d.id)
+)
+UPDATE transactions t
+SET seq = e.seq, balance_after = e.balance_after
+FROM entries e
+WHERE t.id = e.id AND t.seq IS NULL;
+
+-- Users with history but no wallet yet: their balance was 0, as above
+INSERT INTO user_wallet (id, user_id, coins, total_spent, total_earned, last_seq)
+SELECT nextval('user_wallet_seq'), t.user_id, 0, 0, 0, MAX(t.seq)
+FROM transactions t
+WHERE NOT EXISTS (SELECT 1 FROM user_wallet w WHERE w.user_id = t.user_id)
+GROUP BY t.user_id;
+
+UPDATE user_wallet w
+SET last_seq = h.max_seq
+FROM (SELECT user_id, MAX(seq) AS max_seq FROM transactions GROUP BY user_id) h
+WHERE h.user_id = w.user_id AND w.last_seq < h.max_seq;
+
+ALTER TABLE transactions ALTER COLUMN seq SET NOT NULL;
+ALTER TABLE transactions ALTER COLUMN balance_after SET NOT NULL;
+
+-- Keyset pages of GET /api/wallet/transactions, and a guard against a seq handed out twice
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_user_seq
+    ON transactions (user_id, seq);
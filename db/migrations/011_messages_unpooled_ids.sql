@@ -0,0 +1,11 @@
+-- messages ids go back to one nextval per row. Read watermarks and unread counts compare ids,
+-- and pooled blocks (reserved per application instance and per batch writer) let a message
+-- allocated later get a lower id than one allocated before it.
+--
+-- Ids now follow allocation order. They don't follow commit order: a transaction holding id N
+-- can commit after another one's N+1 (see ReadWatermarkRepository).
+--
+-- Every id handed out so far is <= last_value, so continuing from there in steps of 1 keeps
+-- new ids above all existing rows.
+ALTER SEQUENCE messages_seq INCREMENT BY 1;
+SELECT setval('messages_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM messages), (SELECT last_value FROM messages_seq)));
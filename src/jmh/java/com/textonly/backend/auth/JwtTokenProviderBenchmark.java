@@ -0,0 +1,55 @@
+package com.textonly.backend.auth;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token generation and validation. {@code cacheEntries = 0} disables the principal cache,
+ * so {@link #validate()} then measures the full signature check on every call.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtTokenProviderBenchmark {
+
+    @Param({"0", "10000"})
+    public int cacheEntries;
+
+    private AnnotationConfigApplicationContext context;
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(
+                new MapPropertySource("benchmark", Map.of("jwt.cache.max-entries", cacheEntries)));
+        context.register(JwtTokenProvider.class);
+        context.refresh();
+
+        tokenProvider = context.getBean(JwtTokenProvider.class);
+        token = tokenProvider.generateToken("bench@textonly.local", 42L);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String generate() {
+        return tokenProvider.generateToken("bench@textonly.local", 42L);
+    }
+
+    @Benchmark
+    public JwtPrincipal validate() {
+        return tokenProvider.resolvePrincipal(token);
+    }
+}
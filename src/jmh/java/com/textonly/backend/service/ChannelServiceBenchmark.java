@@ -0,0 +1,89 @@
+package com.textonly.backend.service;
+
+import com.textonly.backend.TextOnlyBackendApplication;
+import com.textonly.backend.dto.ChannelMessageDTO;
+import com.textonly.backend.model.Channel;
+import com.textonly.backend.model.Server;
+import com.textonly.backend.model.ServerMember;
+import com.textonly.backend.model.User;
+import com.textonly.backend.repository.ChannelRepository;
+import com.textonly.backend.repository.ServerMemberRepository;
+import com.textonly.backend.repository.ServerRepository;
+import com.textonly.backend.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full {@link ChannelService#sendMessage} path (lookups, insert, commit, STOMP push) with the
+ * whole application context running against an in-memory H2 database in PostgreSQL mode.
+ * Numbers are only comparable with other runs of this benchmark, not with production PostgreSQL.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChannelServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private ChannelService channelService;
+    private Long channelId;
+    private Long userId;
+
+    @Setup
+    public void setUp() {
+        // Command-line arguments, so they override application.properties
+        context = new SpringApplicationBuilder(TextOnlyBackendApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--logging.level.com.textonly=WARN",
+                "--logging.level.org.springframework.security=WARN");
+        channelService = context.getBean(ChannelService.class);
+
+        User user = context.getBean(UserRepository.class).save(User.builder()
+                .email("bench@textonly.local")
+                .password("benchmark")
+                .displayName("Bench")
+                .isActive(true)
+                .build());
+        Server server = context.getBean(ServerRepository.class).save(Server.builder()
+                .name("Benchmark")
+                .owner(user)
+                .createdAt(LocalDateTime.now())
+                .build());
+        // Saved directly: addMember's ON CONFLICT (server_id, user_id) is PostgreSQL-only syntax
+        context.getBean(ServerMemberRepository.class).save(new ServerMember(server.getId(), user.getId()));
+        Channel channel = context.getBean(ChannelRepository.class).save(Channel.builder()
+                .name("general")
+                .type(Channel.ChannelType.TEXT)
+                .server(server)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        userId = user.getId();
+        channelId = channel.getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ChannelMessageDTO sendMessage() {
+        return channelService.sendMessage(channelId, userId, "Salut tuturor!", "TEXT");
+    }
+}
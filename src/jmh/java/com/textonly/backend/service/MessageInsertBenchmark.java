@@ -0,0 +1,164 @@
+package com.textonly.backend.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Message inserts per second for the id strategies the schema has used, one transaction per
+ * {@code batchSize} rows:
+ * <ul>
+ *   <li>IDENTITY: one INSERT per row, reading back the generated key (what Hibernate has to do
+ *       for IDENTITY ids, which rules out JDBC batching)</li>
+ *   <li>SEQUENCE: one {@code nextval} per row fetched in a single query, then one JDBC batch
+ *       (MessageBatchWriter for {@code messages})</li>
+ *   <li>POOLED: one {@code nextval} per 50 ids, then one JDBC batch (the other entities)</li>
+ * </ul>
+ * The {@code inserts} line of the results is rows per second. Runs on in-memory H2 by default;
+ * pass {@code -p url=jdbc:postgresql://localhost:5433/textonly?reWriteBatchedInserts=true
+ * -p user=postgres -p password=...} for numbers that mean something for production.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessageInsertBenchmark {
+
+    private static final int POOL_SIZE = 50;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO bench_messages (sender_id, receiver_id, conversation_key, content, created_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_WITH_ID_SQL =
+            "INSERT INTO bench_messages (id, sender_id, receiver_id, conversation_key, content, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Param({"IDENTITY", "SEQUENCE", "POOLED"})
+    public String idStrategy;
+
+    @Param({"100"})
+    public int batchSize;
+
+    @Param({"jdbc:h2:mem:inserts;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE"})
+    public String url;
+
+    @Param({"sa"})
+    public String user;
+
+    @Param({""})
+    public String password;
+
+    private Connection connection;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Rows {
+        public long inserts;
+    }
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(url, user, password);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_messages");
+            statement.execute("DROP SEQUENCE IF EXISTS bench_messages_seq");
+            statement.execute("DROP SEQUENCE IF EXISTS bench_messages_pooled_seq");
+            statement.execute("CREATE TABLE bench_messages (" +
+                    "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                    "sender_id BIGINT NOT NULL, receiver_id BIGINT NOT NULL, conversation_key VARCHAR(40), " +
+                    "content TEXT NOT NULL, created_at TIMESTAMP)");
+            statement.execute("CREATE INDEX idx_bench_messages_conversation " +
+                    "ON bench_messages (conversation_key, created_at, id)");
+            statement.execute("CREATE SEQUENCE bench_messages_seq START WITH 1 INCREMENT BY 1");
+            statement.execute("CREATE SEQUENCE bench_messages_pooled_seq START WITH 1 INCREMENT BY " + POOL_SIZE);
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE bench_messages");
+            statement.execute("DROP SEQUENCE bench_messages_seq");
+            statement.execute("DROP SEQUENCE bench_messages_pooled_seq");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void insertBatch(Rows rows) throws SQLException {
+        switch (idStrategy) {
+            case "IDENTITY" -> insertWithGeneratedKeys();
+            case "SEQUENCE" -> insertWithIds(allocate("bench_messages_seq", 1));
+            case "POOLED" -> insertWithIds(allocate("bench_messages_pooled_seq", POOL_SIZE));
+            default -> throw new IllegalArgumentException("Unknown id strategy: " + idStrategy);
+        }
+        connection.commit();
+        rows.inserts += batchSize;
+    }
+
+    private void insertWithGeneratedKeys() throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL, new String[] {"id"})) {
+            for (int i = 0; i < batchSize; i++) {
+                bind(insert, 1, i);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                }
+            }
+        }
+    }
+
+    private void insertWithIds(long[] ids) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_WITH_ID_SQL)) {
+            for (int i = 0; i < batchSize; i++) {
+                insert.setLong(1, ids[i]);
+                bind(insert, 2, i);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    // Same reservation as MessageBatchWriter.allocateIds: nextval v stands for (v - blockSize, v]
+    private long[] allocate(String sequence, int blockSize) throws SQLException {
+        long[] ids = new long[batchSize];
+        int filled = 0;
+        try (PreparedStatement next = connection.prepareStatement(
+                "SELECT nextval('" + sequence + "') FROM generate_series(1, ?)")) {
+            // A fresh sequence's first block is just {1}, so the first round can come up short
+            while (filled < batchSize) {
+                next.setInt(1, (batchSize - filled + blockSize - 1) / blockSize);
+                try (ResultSet highValues = next.executeQuery()) {
+                    while (highValues.next()) {
+                        long high = highValues.getLong(1);
+                        for (long id = Math.max(high - blockSize + 1, 1); id <= high && filled < batchSize; id++) {
+                            ids[filled++] = id;
+                        }
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static void bind(PreparedStatement insert, int first, int i) throws SQLException {
+        long sender = 1 + i % 2;
+        insert.setLong(first, sender);
+        insert.setLong(first + 1, 3 - sender);
+        insert.setString(first + 2, "1:2");
+        insert.setString(first + 3, "Salut! Ne vedem diseară?");
+        insert.setTimestamp(first + 4, Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
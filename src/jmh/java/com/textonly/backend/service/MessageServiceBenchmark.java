@@ -0,0 +1,46 @@
+package com.textonly.backend.service;
+
+import com.textonly.backend.dto.MessageDTO;
+import com.textonly.backend.model.Message;
+import com.textonly.backend.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping used by every message read and push.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessageServiceBenchmark {
+
+    private MessageService messageService;
+    private Message message;
+
+    @Setup
+    public void setUp() {
+        // mapToDTO only reads the entity, so no repositories are needed
+        messageService = new MessageService();
+
+        User sender = User.builder().id(1L).email("a@textonly.local").displayName("Alice").build();
+        User receiver = User.builder().id(2L).email("b@textonly.local").displayName("Bob").build();
+        message = Message.builder()
+                .id(1000L)
+                .sender(sender)
+                .receiver(receiver)
+                .conversationKey(Message.conversationKey(1L, 2L))
+                .content("Salut! Ne vedem diseară?")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public MessageDTO mapToDTO() {
+        return messageService.mapToDTO(message);
+    }
+}
@@ -0,0 +1,141 @@
+package com.textonly.backend.service;
+
+import com.textonly.backend.TextOnlyBackendApplication;
+import com.textonly.backend.model.StoreItem;
+import com.textonly.backend.model.User;
+import com.textonly.backend.model.UserInventory;
+import com.textonly.backend.model.UserWallet;
+import com.textonly.backend.repository.StoreItemRepository;
+import com.textonly.backend.repository.UserRepository;
+import com.textonly.backend.repository.UserWalletRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-ups and purchases hammering one wallet from 16 threads at once. The trial fails if the final
+ * balance or the spent/earned totals differ from what the ledger adds up to, or if the ledger has a
+ * gap or duplicate in its seq numbers, i.e. if any concurrent update was lost or interleaved.
+ * Runs on in-memory H2 in PostgreSQL mode, like {@link ChannelServiceBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WalletServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private WalletService walletService;
+    private StoreService storeService;
+    private Long userId;
+    private Long itemId;
+
+    @Setup
+    public void setUp() {
+        // Command-line arguments, so they override application.properties
+        context = new SpringApplicationBuilder(TextOnlyBackendApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:wallet;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=10000",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=",
+                "--spring.datasource.hikari.maximum-pool-size=16",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--logging.level.com.textonly=WARN",
+                "--logging.level.org.springframework.security=WARN");
+        walletService = context.getBean(WalletService.class);
+        storeService = context.getBean(StoreService.class);
+
+        User user = context.getBean(UserRepository.class).save(User.builder()
+                .email("wallet@textonly.local")
+                .password("benchmark")
+                .displayName("Wallet")
+                .isActive(true)
+                .build());
+        StoreItem item = context.getBean(StoreItemRepository.class).save(StoreItem.builder()
+                .name("Trandafir")
+                .price(1)
+                .type(StoreItem.ItemType.GIFT)
+                .isAvailable(true)
+                .build());
+
+        // Created up front so top-ups only ever run the credit UPDATE; the wallet insert's
+        // ON CONFLICT (user_id) is PostgreSQL-only syntax
+        context.getBean(UserWalletRepository.class).save(UserWallet.builder()
+                .user(user)
+                .coins(0)
+                .totalSpent(0)
+                .totalEarned(0)
+                .build());
+
+        userId = user.getId();
+        itemId = item.getId();
+        walletService.addCoins(userId, 1000, "benchmark seed");
+    }
+
+    @TearDown
+    public void tearDown() {
+        try {
+            verifyNoLostUpdates();
+        } finally {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    @Group("hotWallet")
+    @GroupThreads(8)
+    public UserWallet topUp() {
+        return walletService.addCoins(userId, 2, "benchmark");
+    }
+
+    @Benchmark
+    @Group("hotWallet")
+    @GroupThreads(8)
+    public UserInventory purchase() {
+        try {
+            return storeService.purchaseItem(userId, itemId);
+        } catch (RuntimeException e) {
+            // Insufficient coins is a valid outcome under contention, not a failure
+            return null;
+        }
+    }
+
+    private void verifyNoLostUpdates() {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        long earned = jdbc.queryForObject(
+                "SELECT COALESCE(SUM(amount), 0) FROM transactions WHERE user_id = ? AND type = 'TOP_UP'",
+                Long.class, userId);
+        long spent = jdbc.queryForObject(
+                "SELECT COALESCE(SUM(amount), 0) FROM transactions WHERE user_id = ? AND type = 'PURCHASE'",
+                Long.class, userId);
+        long owned = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM user_inventory WHERE user_id = ?", Long.class, userId);
+        long entries = jdbc.queryForObject(
+                "SELECT COUNT(DISTINCT seq) FROM transactions WHERE user_id = ?", Long.class, userId);
+        Integer lastBalance = jdbc.queryForObject(
+                "SELECT balance_after FROM transactions WHERE user_id = ? AND seq = " +
+                "(SELECT MAX(seq) FROM transactions WHERE user_id = ?)", Integer.class, userId, userId);
+
+        UserWallet wallet = context.getBean(UserWalletRepository.class).findByUserId(userId)
+                .orElseThrow(() -> new IllegalStateException("Wallet missing"));
+        if (wallet.getCoins() != earned - spent || wallet.getTotalEarned() != earned
+                || wallet.getTotalSpent() != spent || owned != spent || wallet.getCoins() < 0
+                || entries != wallet.getLastSeq() || !wallet.getCoins().equals(lastBalance)) {
+            throw new IllegalStateException("Lost wallet update: coins=" + wallet.getCoins()
+                    + " earned=" + wallet.getTotalEarned() + "/" + earned
+                    + " spent=" + wallet.getTotalSpent() + "/" + spent
+                    + " items=" + owned
+                    + " entries=" + entries + "/" + wallet.getLastSeq() + " lastBalance=" + lastBalance);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.textonly.backend.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.textonly.backend.dto.MessageDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the payloads sent on every REST read and STOMP push, using an
+ * ObjectMapper configured like the application's (ISO dates, see application.properties).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private MessageDTO message;
+    private SyncMessage syncMessage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        message = MessageDTO.builder()
+                .id(1000L)
+                .senderId(1L)
+                .senderName("Alice")
+                .receiverId(2L)
+                .content("Salut! Ne vedem diseară?")
+                .isRead(false)
+                .createdAt(LocalDateTime.now())
+                .build();
+        syncMessage = SyncMessage.builder()
+                .type(SyncPublisher.MESSAGE_SENT)
+                .senderId(1L)
+                .content(message.getContent())
+                .data(message)
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+
+    @Benchmark
+    public byte[] messageDTO() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public byte[] syncMessage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(syncMessage);
+    }
+}
@@ -24,13 +24,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = extractToken(request);
 
-        if (token != null && jwtTokenProvider.validateToken(token)) {
-            String email = jwtTokenProvider.getEmailFromToken(token);
-            Long userId = jwtTokenProvider.getUserIdFromToken(token);
+        // Single verification per request; repeat tokens come from the provider's cache
+        JwtPrincipal principal = jwtTokenProvider.resolvePrincipal(token);
 
+        if (principal != null) {
             var authentication = new UsernamePasswordAuthenticationToken(
-                    email, null, null);
-            authentication.setDetails(userId);
+                    principal, null, null);
+            authentication.setDetails(principal.getUserId());
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
 
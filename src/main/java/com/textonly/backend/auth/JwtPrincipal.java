@@ -0,0 +1,28 @@
+package com.textonly.backend.auth;
+
+import lombok.Value;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.time.Instant;
+
+/**
+ * Immutable result of a verified JWT. Produced once per token by
+ * {@link JwtTokenProvider#resolvePrincipal(String)} and stored as the
+ * authentication principal, so nothing downstream has to parse the token again.
+ */
+@Value
+public class JwtPrincipal implements AuthenticatedPrincipal {
+
+    Long userId;
+    String email;
+    Instant expiresAt;
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,68 @@
+package com.textonly.backend.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of already verified tokens, keyed by the SHA-256 digest of the
+ * token so raw credentials are never kept in memory. Entries are dropped once
+ * the token expires; when the cache is full, expired entries are swept and new
+ * tokens are simply not cached until room frees up.
+ */
+public class JwtPrincipalCache {
+
+    private final Map<String, JwtPrincipal> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    public JwtPrincipalCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public JwtPrincipal get(String token, Instant now) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        String key = digest(token);
+        JwtPrincipal principal = entries.get(key);
+        if (principal != null && principal.isExpired(now)) {
+            entries.remove(key, principal);
+            return null;
+        }
+        return principal;
+    }
+
+    public void put(String token, JwtPrincipal principal, Instant now) {
+        if (maxEntries <= 0 || principal.isExpired(now)) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evictExpired(now);
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        entries.put(digest(token), principal);
+    }
+
+    public void evictExpired(Instant now) {
+        entries.values().removeIf(principal -> principal.isExpired(now));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
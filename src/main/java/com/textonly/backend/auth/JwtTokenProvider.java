@@ -1,13 +1,17 @@
 package com.textonly.backend.auth;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -21,6 +25,23 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration:86400000}") // 24 hours in ms
     private long jwtExpirationMs;
 
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    // Built once at startup; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private JwtPrincipalCache principalCache;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        principalCache = new JwtPrincipalCache(cacheMaxEntries);
+    }
+
     public String generateToken(String email, Long userId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
@@ -31,41 +52,60 @@ public class JwtTokenProvider {
                 .setSubject(email)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
+    /**
+     * Verifies the token and returns its principal, or null if the token is invalid or expired.
+     * Repeat calls with the same token are served from the cache without re-verifying the signature.
+     */
+    public JwtPrincipal resolvePrincipal(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        Instant now = Instant.now();
+        JwtPrincipal cached = principalCache.get(token, now);
+        if (cached != null) {
+            return cached;
+        }
+
+        JwtPrincipal principal;
+        try {
+            principal = toPrincipal(parser.parseClaimsJws(token).getBody());
+        } catch (Exception e) {
+            return null;
+        }
+        principalCache.put(token, principal, now);
+        return principal;
+    }
+
     public Long getUserIdFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return claims.get("userId", Long.class);
+        return requirePrincipal(token).getUserId();
     }
 
     public String getEmailFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return claims.getSubject();
+        return requirePrincipal(token).getEmail();
     }
 
     public Boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .setSigningKey(getSigningKey())
-                    .parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return resolvePrincipal(token) != null;
     }
 
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .parseClaimsJws(token)
-                .getBody();
+    private JwtPrincipal requirePrincipal(String token) {
+        JwtPrincipal principal = resolvePrincipal(token);
+        if (principal == null) {
+            throw new RuntimeException("Invalid JWT token");
+        }
+        return principal;
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    private JwtPrincipal toPrincipal(Claims claims) {
+        return new JwtPrincipal(
+                claims.get("userId", Long.class),
+                claims.getSubject(),
+                claims.getExpiration().toInstant());
     }
 
     public long getExpirationTime() {
@@ -1,5 +1,6 @@
 package com.textonly.backend.controller;
 
+import com.textonly.backend.auth.CurrentUser;
 import com.textonly.backend.dto.AuthRequestDTO;
 import com.textonly.backend.dto.AuthResponseDTO;
 import com.textonly.backend.service.AuthService;
@@ -30,8 +31,8 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<String> logout(@RequestHeader("Authorization") String token) {
-        // Extract userId from JWT (in real app, use Principal from Spring Security)
+    public ResponseEntity<String> logout(@CurrentUser Long userId) {
+        authService.logout(userId);
         return ResponseEntity.ok("Logged out successfully");
     }
 
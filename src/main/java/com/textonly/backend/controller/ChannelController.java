@@ -1,8 +1,9 @@
 package com.textonly.backend.controller;
 
-import com.textonly.backend.auth.JwtTokenProvider;
+import com.textonly.backend.auth.CurrentUser;
+import com.textonly.backend.dto.ChannelMessageDTO;
+import com.textonly.backend.dto.CursorPage;
 import com.textonly.backend.model.Channel;
-import com.textonly.backend.model.ChannelMessage;
 import com.textonly.backend.service.ChannelService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -19,9 +20,6 @@ public class ChannelController {
 
     @Autowired
     private ChannelService channelService;
-    
-    @Autowired
-    private JwtTokenProvider jwtTokenProvider;
 
     @PostMapping
     public ResponseEntity<Channel> createChannel(
@@ -41,12 +39,11 @@ public class ChannelController {
     }
 
     @PostMapping("/{id}/messages")
-    public ResponseEntity<ChannelMessage> sendMessage(
+    public ResponseEntity<ChannelMessageDTO> sendMessage(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUser Long userId,
             @RequestBody Map<String, String> request) {
-        Long userId = extractUserIdFromHeader(authHeader);
-        ChannelMessage message = channelService.sendMessage(
+        ChannelMessageDTO message = channelService.sendMessage(
             id,
             userId,
             request.get("content"),
@@ -56,18 +53,17 @@ public class ChannelController {
     }
 
     @GetMapping("/{id}/messages")
-    public ResponseEntity<List<ChannelMessage>> getMessages(
+    public ResponseEntity<List<ChannelMessageDTO>> getMessages(
             @PathVariable Long id,
+            @CurrentUser Long userId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "50") int limit) {
-        List<ChannelMessage> messages = channelService.getChannelMessages(id, limit);
-        return ResponseEntity.ok(messages);
-    }
-
-    private Long extractUserIdFromHeader(String authHeader) {
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            return jwtTokenProvider.getUserIdFromToken(token);
+        CursorPage<ChannelMessageDTO> page = channelService.getChannelMessages(id, userId, before, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.getNextCursor());
         }
-        throw new RuntimeException("Invalid Authorization header");
+        return response.body(page.getItems());
     }
 }
@@ -1,5 +1,7 @@
 package com.textonly.backend.controller;
 
+import com.textonly.backend.auth.CurrentUser;
+import com.textonly.backend.dto.ContactImportDTO;
 import com.textonly.backend.dto.UserProfileDTO;
 import com.textonly.backend.service.ContactService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,8 +21,7 @@ public class ContactController {
 
     @GetMapping
     public ResponseEntity<List<UserProfileDTO>> getContacts(
-            @RequestHeader("Authorization") String authHeader) {
-        Long userId = extractUserIdFromHeader(authHeader);
+            @CurrentUser Long userId) {
         List<UserProfileDTO> contacts = contactService.getContacts(userId);
         return ResponseEntity.ok(contacts);
     }
@@ -28,24 +29,24 @@ public class ContactController {
     @PostMapping("/{contactId}")
     public ResponseEntity<UserProfileDTO> addContact(
             @PathVariable Long contactId,
-            @RequestHeader("Authorization") String authHeader) {
-        Long userId = extractUserIdFromHeader(authHeader);
+            @CurrentUser Long userId) {
         UserProfileDTO contact = contactService.addContact(userId, contactId);
         return ResponseEntity.status(HttpStatus.CREATED).body(contact);
     }
 
+    @PostMapping("/import")
+    public ResponseEntity<List<UserProfileDTO>> importContacts(
+            @RequestBody ContactImportDTO request,
+            @CurrentUser Long userId) {
+        List<UserProfileDTO> contacts = contactService.importContacts(userId, request);
+        return ResponseEntity.ok(contacts);
+    }
+
     @DeleteMapping("/{contactId}")
     public ResponseEntity<Void> removeContact(
             @PathVariable Long contactId,
-            @RequestHeader("Authorization") String authHeader) {
-        Long userId = extractUserIdFromHeader(authHeader);
+            @CurrentUser Long userId) {
         contactService.removeContact(userId, contactId);
         return ResponseEntity.noContent().build();
     }
-
-    // Helper method - in production use Spring Security Principal
-    private Long extractUserIdFromHeader(String authHeader) {
-        // This is a placeholder - implement JWT extraction
-        return 1L; // Default for now
-    }
 }
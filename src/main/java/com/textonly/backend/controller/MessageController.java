@@ -1,7 +1,10 @@
 package com.textonly.backend.controller;
 
+import com.textonly.backend.auth.CurrentUser;
+import com.textonly.backend.dto.CursorPage;
 import com.textonly.backend.dto.MessageCreateDTO;
 import com.textonly.backend.dto.MessageDTO;
+import com.textonly.backend.dto.UnreadCountsDTO;
 import com.textonly.backend.service.MessageService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,10 +24,8 @@ public class MessageController {
 
     @PostMapping
     public ResponseEntity<MessageDTO> sendMessage(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUser Long senderId,
             @Valid @RequestBody MessageCreateDTO request) {
-        // Extract userId from JWT/Principal (in real app use Spring Security)
-        Long senderId = extractUserIdFromHeader(authHeader);
         MessageDTO message = messageService.sendMessage(senderId, request);
         return ResponseEntity.status(HttpStatus.CREATED).body(message);
     }
@@ -32,29 +33,45 @@ public class MessageController {
     @GetMapping("/conversation/{otherUserId}")
     public ResponseEntity<List<MessageDTO>> getConversation(
             @PathVariable Long otherUserId,
-            @RequestHeader("Authorization") String authHeader) {
-        Long currentUserId = extractUserIdFromHeader(authHeader);
-        List<MessageDTO> messages = messageService.getConversation(currentUserId, otherUserId);
-        return ResponseEntity.ok(messages);
+            @CurrentUser Long currentUserId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        CursorPage<MessageDTO> page = messageService.getConversation(currentUserId, otherUserId, before, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     @GetMapping("/unread")
     public ResponseEntity<List<MessageDTO>> getUnreadMessages(
-            @RequestHeader("Authorization") String authHeader) {
-        Long userId = extractUserIdFromHeader(authHeader);
+            @CurrentUser Long userId) {
         List<MessageDTO> messages = messageService.getUnreadMessages(userId);
         return ResponseEntity.ok(messages);
     }
 
-    @PatchMapping("/{id}/read")
-    public ResponseEntity<Void> markAsRead(@PathVariable Long id) {
-        messageService.markAsRead(id);
+    @GetMapping("/unread/counts")
+    public ResponseEntity<UnreadCountsDTO> getUnreadCounts(
+            @CurrentUser Long userId) {
+        return ResponseEntity.ok(messageService.getUnreadCounts(userId));
+    }
+
+    @PutMapping("/conversation/{otherUserId}/read")
+    public ResponseEntity<Void> markConversationRead(
+            @PathVariable Long otherUserId,
+            @CurrentUser Long userId,
+            @RequestParam(required = false) Long upTo) {
+        messageService.markConversationRead(userId, otherUserId, upTo);
         return ResponseEntity.noContent().build();
     }
 
-    // Helper method - in production use Spring Security Principal
-    private Long extractUserIdFromHeader(String authHeader) {
-        // This is a placeholder - implement JWT extraction with JwtTokenProvider
-        return 1L; // Default for now
+    @PatchMapping("/{id}/read")
+    public ResponseEntity<Void> markAsRead(
+            @PathVariable Long id,
+            @CurrentUser Long userId) {
+        messageService.markAsRead(userId, id);
+        return ResponseEntity.noContent().build();
     }
 }
@@ -1,6 +1,7 @@
 package com.textonly.backend.controller;
 
-import com.textonly.backend.auth.JwtTokenProvider;
+import com.textonly.backend.auth.CurrentUser;
+import com.textonly.backend.dto.ServerOverviewDTO;
 import com.textonly.backend.model.Server;
 import com.textonly.backend.service.ServerService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,15 +19,11 @@ public class ServerController {
 
     @Autowired
     private ServerService serverService;
-    
-    @Autowired
-    private JwtTokenProvider jwtTokenProvider;
 
     @PostMapping
     public ResponseEntity<Server> createServer(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUser Long userId,
             @RequestBody Map<String, String> request) {
-        Long userId = extractUserIdFromHeader(authHeader);
         Server server = serverService.createServer(
             request.get("name"),
             request.get("description"),
@@ -38,12 +35,17 @@ public class ServerController {
 
     @GetMapping
     public ResponseEntity<List<Server>> getUserServers(
-            @RequestHeader("Authorization") String authHeader) {
-        Long userId = extractUserIdFromHeader(authHeader);
+            @CurrentUser Long userId) {
         List<Server> servers = serverService.getUserServers(userId);
         return ResponseEntity.ok(servers);
     }
 
+    @GetMapping("/overview")
+    public ResponseEntity<List<ServerOverviewDTO>> getServerOverview(
+            @CurrentUser Long userId) {
+        return ResponseEntity.ok(serverService.getUserServerOverview(userId));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Server> getServer(@PathVariable Long id) {
         Server server = serverService.getServerById(id);
@@ -53,8 +55,7 @@ public class ServerController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteServer(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String authHeader) {
-        Long userId = extractUserIdFromHeader(authHeader);
+            @CurrentUser Long userId) {
         serverService.deleteServer(id, userId);
         return ResponseEntity.noContent().build();
     }
@@ -71,17 +72,8 @@ public class ServerController {
     public ResponseEntity<Void> removeMember(
             @PathVariable Long id,
             @PathVariable Long userId,
-            @RequestHeader("Authorization") String authHeader) {
-        Long requesterId = extractUserIdFromHeader(authHeader);
+            @CurrentUser Long requesterId) {
         serverService.removeMember(id, userId, requesterId);
         return ResponseEntity.noContent().build();
     }
-
-    private Long extractUserIdFromHeader(String authHeader) {
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            return jwtTokenProvider.getUserIdFromToken(token);
-        }
-        throw new RuntimeException("Invalid Authorization header");
-    }
 }
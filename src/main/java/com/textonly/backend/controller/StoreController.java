@@ -1,11 +1,12 @@
 package com.textonly.backend.controller;
 
-import com.textonly.backend.auth.JwtTokenProvider;
-import com.textonly.backend.model.StoreItem;
+import com.textonly.backend.auth.CurrentUser;
 import com.textonly.backend.model.UserInventory;
 import com.textonly.backend.service.StoreService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,39 +20,34 @@ public class StoreController {
 
     @Autowired
     private StoreService storeService;
-    
-    @Autowired
-    private JwtTokenProvider jwtTokenProvider;
 
+    // Cached JSON bytes with a strong ETag: a matching If-None-Match is answered 304 with no body,
+    // and no-cache makes clients revalidate instead of reusing a stale catalog
     @GetMapping("/items")
-    public ResponseEntity<List<StoreItem>> getStoreItems(
-            @RequestParam(required = false) String type) {
-        List<StoreItem> items = storeService.getStoreItems(type);
-        return ResponseEntity.ok(items);
+    public ResponseEntity<byte[]> getStoreItems(
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "false") boolean available) {
+        return storeService.getStoreItems(type, available)
+                .map(view -> ResponseEntity.ok()
+                        .eTag(view.etag())
+                        .cacheControl(CacheControl.noCache())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(view.json()))
+                .orElseGet(() -> ResponseEntity.badRequest().build());
     }
 
     @PostMapping("/buy")
     public ResponseEntity<UserInventory> buyItem(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUser Long userId,
             @RequestBody Map<String, Long> request) {
-        Long userId = extractUserIdFromHeader(authHeader);
         UserInventory purchase = storeService.purchaseItem(userId, request.get("itemId"));
         return ResponseEntity.status(HttpStatus.CREATED).body(purchase);
     }
 
     @GetMapping("/inventory")
     public ResponseEntity<List<UserInventory>> getInventory(
-            @RequestHeader("Authorization") String authHeader) {
-        Long userId = extractUserIdFromHeader(authHeader);
+            @CurrentUser Long userId) {
         List<UserInventory> inventory = storeService.getUserInventory(userId);
         return ResponseEntity.ok(inventory);
     }
-
-    private Long extractUserIdFromHeader(String authHeader) {
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            return jwtTokenProvider.getUserIdFromToken(token);
-        }
-        throw new RuntimeException("Invalid Authorization header");
-    }
 }
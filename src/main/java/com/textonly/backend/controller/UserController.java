@@ -1,5 +1,8 @@
 package com.textonly.backend.controller;
 
+import com.textonly.backend.auth.CurrentUser;
+import com.textonly.backend.dto.CursorPage;
+import com.textonly.backend.dto.UserCompletionDTO;
 import com.textonly.backend.dto.UserProfileDTO;
 import com.textonly.backend.service.UserService;
 import jakarta.validation.Valid;
@@ -39,9 +42,24 @@ public class UserController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<UserCompletionDTO>> autocomplete(
+            @CurrentUser Long userId,
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(userService.autocomplete(userId, prefix, limit));
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<List<UserProfileDTO>> searchUsers(@RequestParam String query) {
-        List<UserProfileDTO> results = userService.searchUsers(query);
-        return ResponseEntity.ok(results);
+    public ResponseEntity<List<UserProfileDTO>> searchUsers(
+            @RequestParam String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        CursorPage<UserProfileDTO> page = userService.searchUsers(query, cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 }
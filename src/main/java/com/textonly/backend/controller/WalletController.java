@@ -1,7 +1,8 @@
 package com.textonly.backend.controller;
 
-import com.textonly.backend.auth.JwtTokenProvider;
-import com.textonly.backend.model.Transaction;
+import com.textonly.backend.auth.CurrentUser;
+import com.textonly.backend.dto.CursorPage;
+import com.textonly.backend.dto.TransactionDTO;
 import com.textonly.backend.model.UserWallet;
 import com.textonly.backend.service.WalletService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,23 +19,18 @@ public class WalletController {
 
     @Autowired
     private WalletService walletService;
-    
-    @Autowired
-    private JwtTokenProvider jwtTokenProvider;
 
     @GetMapping
     public ResponseEntity<UserWallet> getWallet(
-            @RequestHeader("Authorization") String authHeader) {
-        Long userId = extractUserIdFromHeader(authHeader);
+            @CurrentUser Long userId) {
         UserWallet wallet = walletService.getUserWallet(userId);
         return ResponseEntity.ok(wallet);
     }
 
     @PostMapping("/add")
     public ResponseEntity<UserWallet> addCoins(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUser Long userId,
             @RequestBody Map<String, Object> request) {
-        Long userId = extractUserIdFromHeader(authHeader);
         Integer amount = Integer.parseInt(request.get("amount").toString());
         String description = (String) request.get("description");
         UserWallet wallet = walletService.addCoins(userId, amount, description);
@@ -42,18 +38,15 @@ public class WalletController {
     }
 
     @GetMapping("/transactions")
-    public ResponseEntity<List<Transaction>> getTransactions(
-            @RequestHeader("Authorization") String authHeader) {
-        Long userId = extractUserIdFromHeader(authHeader);
-        List<Transaction> transactions = walletService.getUserTransactions(userId);
-        return ResponseEntity.ok(transactions);
-    }
-
-    private Long extractUserIdFromHeader(String authHeader) {
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            return jwtTokenProvider.getUserIdFromToken(token);
+    public ResponseEntity<List<TransactionDTO>> getTransactions(
+            @CurrentUser Long userId,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int limit) {
+        CursorPage<TransactionDTO> page = walletService.getUserTransactions(userId, before, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.getNextCursor());
         }
-        throw new RuntimeException("Invalid Authorization header");
+        return response.body(page.getItems());
     }
 }
@@ -0,0 +1,21 @@
+package com.textonly.backend.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChannelMessageDTO {
+
+    private Long id;
+    private Long channelId;
+    private Long senderId;
+    private String senderName;
+    private String senderAvatarUrl;
+    private String content;
+    private String type;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,17 @@
+package com.textonly.backend.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChannelSummaryDTO {
+
+    private Long id;
+    private Long serverId;
+    private String name;
+    private String type;
+    private Integer position;
+}
@@ -0,0 +1,15 @@
+package com.textonly.backend.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContactImportDTO {
+
+    private List<Long> userIds;
+    private List<String> emails; // address book entries, matched exactly like login
+}
@@ -0,0 +1,16 @@
+package com.textonly.backend.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    // Response header carrying the cursor for the next page, so list endpoints keep returning plain arrays
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private List<T> items;
+    private String nextCursor; // null when there is nothing more in this direction
+}
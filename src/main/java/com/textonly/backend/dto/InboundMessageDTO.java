@@ -0,0 +1,16 @@
+package com.textonly.backend.dto;
+
+import lombok.*;
+
+// Frame body for messages sent over STOMP (/app/chat/{receiverId}, /app/channels/{channelId}/messages)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InboundMessageDTO {
+
+    private String clientMessageId; // echoed back in the ack so the client can match it
+    private String content;
+    private String messageType; // channel messages only, defaults to TEXT
+}
@@ -0,0 +1,12 @@
+package com.textonly.backend.dto;
+
+/**
+ * A paging cursor that was not produced by this server (or was mangled on the way back).
+ * Answered with 400 Bad Request.
+ */
+public class InvalidCursorException extends IllegalArgumentException {
+
+    public InvalidCursorException(String cursor) {
+        super("Invalid cursor: " + cursor);
+    }
+}
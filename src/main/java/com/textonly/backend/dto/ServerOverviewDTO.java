@@ -0,0 +1,27 @@
+package com.textonly.backend.dto;
+
+import lombok.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One sidebar entry: a server the user belongs to and its channels in display order.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ServerOverviewDTO {
+
+    private Long id;
+    private String name;
+    private String iconUrl;
+    @Builder.Default
+    private List<ChannelSummaryDTO> channels = new ArrayList<>();
+
+    // Used by the JPQL constructor projection; channels are attached afterwards
+    public ServerOverviewDTO(Long id, String name, String iconUrl) {
+        this(id, name, iconUrl, new ArrayList<>());
+    }
+}
@@ -0,0 +1,22 @@
+package com.textonly.backend.dto;
+
+import com.textonly.backend.model.Transaction;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionDTO {
+
+    private Long id;
+    private Long seq;
+    private Transaction.TransactionType type;
+    private Integer amount;
+    private Integer balanceAfter;
+    private String description;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,15 @@
+package com.textonly.backend.dto;
+
+import lombok.*;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UnreadCountsDTO {
+
+    private Integer total;
+    private Map<Long, Integer> bySender; // senderId -> unread messages from that sender
+}
@@ -0,0 +1,15 @@
+package com.textonly.backend.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserCompletionDTO {
+
+    private Long id;
+    private String displayName;
+    private boolean contact; // already in the requesting user's contacts
+}
@@ -0,0 +1,38 @@
+package com.textonly.backend.dto;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in user search results: the rank group (0 = prefix match, 1 = substring
+ * match), then the lower-cased display name and id the results are ordered by.
+ */
+@Value
+public class UserSearchCursor {
+
+    int rank;
+    String sortKey;
+    Long id;
+
+    public String encode() {
+        // The name goes last since it may itself contain the separator
+        String raw = rank + "|" + id + "|" + sortKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static UserSearchCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            int rank = Integer.parseInt(parts[0]);
+            if (rank < 0 || rank > 1) {
+                throw new IllegalArgumentException();
+            }
+            return new UserSearchCursor(rank, parts[2], Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
@@ -5,7 +5,9 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "channels")
+@Table(name = "channels", indexes = {
+    @Index(name = "idx_channels_server_position", columnList = "server_id, position")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -14,7 +16,8 @@ import java.time.LocalDateTime;
 public class Channel {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "channels_seq")
+    @SequenceGenerator(name = "channels_seq", sequenceName = "channels_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -3,9 +3,12 @@ package com.textonly.backend.model;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "channel_messages")
+@Table(name = "channel_messages", indexes = {
+    @Index(name = "idx_channel_messages_channel_created", columnList = "channel_id, created_at, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -13,8 +16,13 @@ import java.time.LocalDateTime;
 @Builder
 public class ChannelMessage {
 
+    // Shared with MessageBatchWriter, which takes ids from the same sequence over JDBC
+    public static final String ID_SEQUENCE = "channel_messages_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne
@@ -40,7 +48,9 @@ public class ChannelMessage {
 
     @PrePersist
     protected void onCreate() {
-        this.createdAt = LocalDateTime.now();
+        // PostgreSQL keeps microseconds; truncating here keeps cached copies and keyset cursors
+        // identical to the stored row
+        this.createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     public enum MessageType {
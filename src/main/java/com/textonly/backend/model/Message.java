@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+    @Index(name = "idx_messages_conversation_created", columnList = "conversation_key, created_at, id"),
+    @Index(name = "idx_messages_receiver", columnList = "receiver_id, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -12,8 +15,16 @@ import lombok.*;
 @Builder
 public class Message {
 
+    // Shared with MessageBatchWriter, which takes ids from the same sequence over JDBC
+    public static final String ID_SEQUENCE = "messages_seq";
+    // Not pooled: read watermarks compare ids, so ids must follow allocation order across instances
+    // and writers (pooled blocks are handed out per instance and per writer). Commit order can
+    // still differ; see ReadWatermarkRepository
+    public static final int ID_ALLOCATION_SIZE = 1;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne
@@ -24,17 +35,25 @@ public class Message {
     @JoinColumn(name = "receiver_id", nullable = false)
     private User receiver;
 
+    // "<lowerUserId>:<higherUserId>", identical for both directions of a DM thread
+    @Column(name = "conversation_key", length = 40)
+    private String conversationKey;
+
     @Column(columnDefinition = "TEXT", nullable = false)
     private String content;
 
-    @Column(name = "is_read")
-    private Boolean isRead = false;
-
     @Column(name = "created_at", columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
     private java.time.LocalDateTime createdAt;
 
     @PrePersist
     protected void onCreate() {
         this.createdAt = java.time.LocalDateTime.now();
+        if (this.conversationKey == null) {
+            this.conversationKey = conversationKey(sender.getId(), receiver.getId());
+        }
+    }
+
+    public static String conversationKey(Long userId1, Long userId2) {
+        return Math.min(userId1, userId2) + ":" + Math.max(userId1, userId2);
     }
 }
@@ -0,0 +1,39 @@
+package com.textonly.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * "User has read everything from peer up to message X". One row per direction of a
+ * conversation; advanced with a single upsert instead of flagging each message.
+ */
+@Entity
+@Table(name = "message_read_watermarks", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id", "peer_id"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReadWatermark {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "message_read_watermarks_seq")
+    @SequenceGenerator(name = "message_read_watermarks_seq", sequenceName = "message_read_watermarks_seq", allocationSize = 50)
+    private Long id;
+
+    // Plain ids rather than @ManyToOne: the row is only ever written by native upserts
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "peer_id", nullable = false)
+    private Long peerId;
+
+    @Column(name = "last_read_message_id", nullable = false)
+    private Long lastReadMessageId;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -16,7 +16,8 @@ import java.util.List;
 public class Server {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "servers_seq")
+    @SequenceGenerator(name = "servers_seq", sequenceName = "servers_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -36,15 +37,6 @@ public class Server {
     @Builder.Default
     private List<Channel> channels = new ArrayList<>();
 
-    @ManyToMany
-    @JoinTable(
-        name = "server_members",
-        joinColumns = @JoinColumn(name = "server_id"),
-        inverseJoinColumns = @JoinColumn(name = "user_id")
-    )
-    @Builder.Default
-    private List<User> members = new ArrayList<>();
-
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -0,0 +1,30 @@
+package com.textonly.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One row per (server, user) membership. Replaces the {@code @ManyToMany} members list on
+ * {@link Server}, so joining or leaving is a single-row insert/delete instead of rewriting
+ * the whole collection.
+ */
+@Entity
+@Table(name = "server_members", indexes = {
+    @Index(name = "idx_server_members_user", columnList = "user_id, server_id")
+})
+@IdClass(ServerMemberId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ServerMember {
+
+    @Id
+    @Column(name = "server_id", nullable = false)
+    private Long serverId;
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+}
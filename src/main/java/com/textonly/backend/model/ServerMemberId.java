@@ -0,0 +1,16 @@
+package com.textonly.backend.model;
+
+import lombok.*;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ServerMemberId implements Serializable {
+
+    private Long serverId;
+    private Long userId;
+}
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class StoreItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "store_items_seq")
+    @SequenceGenerator(name = "store_items_seq", sequenceName = "store_items_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -2,10 +2,18 @@ package com.textonly.backend.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Immutable;
 import java.time.LocalDateTime;
 
+/**
+ * One wallet ledger entry. Entries are only ever appended: {@code seq} numbers a user's entries
+ * 1, 2, 3... in the order they hit the wallet and {@code balanceAfter} is the balance right after it.
+ */
 @Entity
-@Table(name = "transactions")
+@Immutable
+@Table(name = "transactions", indexes = {
+    @Index(name = "idx_transactions_user_seq", columnList = "user_id, seq", unique = true)
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -14,13 +22,17 @@ import java.time.LocalDateTime;
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    @Column(nullable = false)
+    private Long seq;
+
     @Column(nullable = false)
     private Integer amount;
 
@@ -28,6 +40,9 @@ public class Transaction {
     @Column(nullable = false)
     private TransactionType type;
 
+    @Column(name = "balance_after", nullable = false)
+    private Integer balanceAfter;
+
     @Column(columnDefinition = "TEXT")
     private String description;
 
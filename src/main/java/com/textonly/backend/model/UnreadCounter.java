@@ -0,0 +1,35 @@
+package com.textonly.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "unread_counters", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id", "peer_id"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UnreadCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "unread_counters_seq")
+    @SequenceGenerator(name = "unread_counters_seq", sequenceName = "unread_counters_seq", allocationSize = 50)
+    private Long id;
+
+    // Plain ids: rows are written in batches by UnreadCounterService
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "peer_id", nullable = false)
+    private Long peerId;
+
+    @Column(name = "unread_count", nullable = false)
+    private Integer unreadCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
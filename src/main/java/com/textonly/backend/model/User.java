@@ -13,7 +13,8 @@ import lombok.*;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -28,7 +29,8 @@ public class User {
     @Column(name = "avatar_url")
     private String avatarUrl;
 
-    @Column(columnDefinition = "VARCHAR(20) DEFAULT 'offline'")
+    // Written only by PresenceService (batched), so saving a stale entity can't roll it back
+    @Column(columnDefinition = "VARCHAR(20) DEFAULT 'offline'", updatable = false)
     private String status; // online, offline, away, busy
 
     @Column(name = "is_active")
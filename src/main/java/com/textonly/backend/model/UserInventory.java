@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class UserInventory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_inventory_seq")
+    @SequenceGenerator(name = "user_inventory_seq", sequenceName = "user_inventory_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
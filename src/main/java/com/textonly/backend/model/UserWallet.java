@@ -13,7 +13,8 @@ import lombok.*;
 public class UserWallet {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_wallet_seq")
+    @SequenceGenerator(name = "user_wallet_seq", sequenceName = "user_wallet_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne
@@ -28,4 +29,9 @@ public class UserWallet {
 
     @Column(name = "total_earned")
     private Integer totalEarned = 0;
+
+    // seq of the user's latest ledger entry; coins and the totals are the balance as of that entry
+    @Column(name = "last_seq", nullable = false)
+    @Builder.Default
+    private Long lastSeq = 0L;
 }
@@ -1,12 +1,48 @@
 package com.textonly.backend.repository;
 
+import com.textonly.backend.dto.ChannelMessageDTO;
 import com.textonly.backend.model.ChannelMessage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ChannelMessageRepository extends JpaRepository<ChannelMessage, Long> {
-    List<ChannelMessage> findByChannelIdOrderByCreatedAtAsc(Long channelId);
-    List<ChannelMessage> findTop50ByChannelIdOrderByCreatedAtDesc(Long channelId);
+
+    // Same keyset scheme as MessageRepository: one range scan on idx_channel_messages_channel_created,
+    // limit pushed into SQL through the Pageable, rows projected straight into the DTO
+    String CHANNEL_DTO = "SELECT new com.textonly.backend.dto.ChannelMessageDTO(" +
+            "m.id, m.channel.id, s.id, s.displayName, s.avatarUrl, m.content, CAST(m.type AS String), m.createdAt) " +
+            "FROM ChannelMessage m JOIN m.sender s WHERE m.channel.id = :channelId ";
+
+    @Query(CHANNEL_DTO +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<ChannelMessageDTO> findLatestInChannel(@Param("channelId") Long channelId, Pageable page);
+
+    @Query(CHANNEL_DTO +
+           "AND m.createdAt <= :createdAt AND (m.createdAt < :createdAt OR m.id < :id) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<ChannelMessageDTO> findInChannelBefore(@Param("channelId") Long channelId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Pageable page);
+
+    @Query(CHANNEL_DTO +
+           "AND m.createdAt >= :createdAt AND (m.createdAt > :createdAt OR m.id > :id) " +
+           "ORDER BY m.createdAt ASC, m.id ASC")
+    List<ChannelMessageDTO> findInChannelAfter(@Param("channelId") Long channelId,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id,
+                                               Pageable page);
+
+    @Modifying
+    @Query("DELETE FROM ChannelMessage m WHERE m.channel.id IN :channelIds")
+    int deleteByChannelIds(@Param("channelIds") Collection<Long> channelIds);
 }
@@ -1,12 +1,27 @@
 package com.textonly.backend.repository;
 
+import com.textonly.backend.dto.ChannelSummaryDTO;
 import com.textonly.backend.model.Channel;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ChannelRepository extends JpaRepository<Channel, Long> {
     List<Channel> findByServerId(Long serverId);
     List<Channel> findByServerIdOrderByPositionAsc(Long serverId);
+
+    @Query("SELECT c.server.id FROM Channel c WHERE c.id = :channelId")
+    Optional<Long> findServerIdById(@Param("channelId") Long channelId);
+
+    // Channels of many servers in one pass over idx_channels_server_position, already in sidebar order
+    @Query("SELECT new com.textonly.backend.dto.ChannelSummaryDTO(" +
+           "c.id, c.server.id, c.name, CAST(c.type AS String), c.position) " +
+           "FROM Channel c WHERE c.server.id IN :serverIds " +
+           "ORDER BY c.server.id, c.position, c.id")
+    List<ChannelSummaryDTO> findSummariesByServerIds(@Param("serverIds") Collection<Long> serverIds);
 }
@@ -1,16 +1,34 @@
 package com.textonly.backend.repository;
 
+import com.textonly.backend.dto.UserProfileDTO;
 import com.textonly.backend.model.Contact;
-import com.textonly.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
 import java.util.List;
 
 @Repository
 public interface ContactRepository extends JpaRepository<Contact, Long> {
-    List<Contact> findByUser(User user);
-    Optional<Contact> findByUserAndContact(User user, User contact);
-    void deleteByUserAndContact(User user, User contact);
+    // Returns 0 when the contact is already in the list
+    @Modifying
+    @Query(value = "INSERT INTO contacts (id, user_id, contact_id, created_at) " +
+                   "VALUES (nextval('contacts_seq'), :userId, :contactId, now()) " +
+                   "ON CONFLICT (user_id, contact_id) DO NOTHING",
+           nativeQuery = true)
+    int addContact(@Param("userId") Long userId, @Param("contactId") Long contactId);
+
+    @Modifying
+    @Query("DELETE FROM Contact c WHERE c.user.id = :userId AND c.contact.id = :contactId")
+    int removeContact(@Param("userId") Long userId, @Param("contactId") Long contactId);
+
+    // One scan of the (user_id, contact_id) unique index joined to users, projected straight into the DTO
+    @Query("SELECT new com.textonly.backend.dto.UserProfileDTO(u.id, u.email, u.displayName, u.avatarUrl, u.status) " +
+           "FROM Contact c JOIN c.contact u WHERE c.user.id = :userId ORDER BY c.id")
+    List<UserProfileDTO> findContactProfiles(@Param("userId") Long userId);
+
+    @Query("SELECT c.contact.id FROM Contact c WHERE c.user.id = :userId")
+    List<Long> findContactIds(@Param("userId") Long userId);
 }
@@ -1,22 +1,60 @@
 package com.textonly.backend.repository;
 
+import com.textonly.backend.dto.MessageDTO;
 import com.textonly.backend.model.Message;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
 
-    @Query("SELECT m FROM Message m WHERE " +
-           "(m.sender.id = :userId1 AND m.receiver.id = :userId2) OR " +
-           "(m.sender.id = :userId2 AND m.receiver.id = :userId1) " +
+    // isRead is filled in from the read watermarks by MessageService.
+    // Every conversation read is a single range scan on idx_messages_conversation_created;
+    // the leading created_at bound keeps the keyset predicate inside that index range.
+    String CONVERSATION_DTO = "SELECT new com.textonly.backend.dto.MessageDTO(" +
+            "m.id, s.id, s.displayName, m.receiver.id, m.content, FALSE, m.createdAt) " +
+            "FROM Message m JOIN m.sender s WHERE m.conversationKey = :conversationKey ";
+
+    @Query(CONVERSATION_DTO +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MessageDTO> findLatestInConversation(@Param("conversationKey") String conversationKey,
+                                              Pageable page);
+
+    @Query(CONVERSATION_DTO +
+           "AND m.createdAt <= :createdAt AND (m.createdAt < :createdAt OR m.id < :id) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MessageDTO> findInConversationBefore(@Param("conversationKey") String conversationKey,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Pageable page);
+
+    @Query(CONVERSATION_DTO +
+           "AND m.createdAt >= :createdAt AND (m.createdAt > :createdAt OR m.id > :id) " +
+           "ORDER BY m.createdAt ASC, m.id ASC")
+    List<MessageDTO> findInConversationAfter(@Param("conversationKey") String conversationKey,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id,
+                                             Pageable page);
+
+    // Unread = newer than the receiver's watermark for that sender
+    @Query("SELECT new com.textonly.backend.dto.MessageDTO(" +
+           "m.id, s.id, s.displayName, m.receiver.id, m.content, FALSE, m.createdAt) " +
+           "FROM Message m JOIN m.sender s WHERE m.receiver.id = :userId " +
+           "AND m.id > COALESCE((SELECT w.lastReadMessageId FROM ReadWatermark w " +
+           "WHERE w.userId = :userId AND w.peerId = s.id), 0) " +
            "ORDER BY m.createdAt DESC")
-    List<Message> findConversationBetween(@Param("userId1") Long userId1, @Param("userId2") Long userId2);
+    List<MessageDTO> findUnreadMessages(@Param("userId") Long userId);
 
-    @Query("SELECT m FROM Message m WHERE m.receiver.id = :userId AND m.isRead = false ORDER BY m.createdAt DESC")
-    List<Message> findUnreadMessages(@Param("userId") Long userId);
+    // [senderId, count] per sender with unread messages
+    @Query("SELECT m.sender.id, COUNT(m) FROM Message m WHERE m.receiver.id = :userId " +
+           "AND m.id > COALESCE((SELECT w.lastReadMessageId FROM ReadWatermark w " +
+           "WHERE w.userId = :userId AND w.peerId = m.sender.id), 0) " +
+           "GROUP BY m.sender.id")
+    List<Object[]> countUnreadBySender(@Param("userId") Long userId);
 }
@@ -0,0 +1,48 @@
+package com.textonly.backend.repository;
+
+import com.textonly.backend.model.ReadWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ReadWatermarkRepository extends JpaRepository<ReadWatermark, Long> {
+
+    @Query("SELECT w FROM ReadWatermark w WHERE " +
+           "(w.userId = :userId1 AND w.peerId = :userId2) OR (w.userId = :userId2 AND w.peerId = :userId1)")
+    List<ReadWatermark> findForConversation(@Param("userId1") Long userId1, @Param("userId2") Long userId2);
+
+    // Watermarks only move forward (GREATEST), so late or duplicate requests are harmless.
+    // A watermark is the highest message id visible when the read runs. Message ids follow
+    // allocation order, not commit order: if the peer has a message in flight that took a lower
+    // id than one already committed (two sends at once, e.g. REST and STOMP), a read in between
+    // passes it, and it counts as read once it commits without having been delivered.
+    // Ids come from the entity's pooled sequence: each nextval reserves a whole block, so these
+    // rows never collide with ids Hibernate hands out.
+    @Modifying
+    @Query(value = "INSERT INTO message_read_watermarks (id, user_id, peer_id, last_read_message_id, updated_at) " +
+                   "SELECT nextval('message_read_watermarks_seq'), m.receiver_id, m.sender_id, MAX(m.id), now() FROM messages m " +
+                   "WHERE m.conversation_key = :conversationKey AND m.receiver_id = :userId AND m.id <= :upTo " +
+                   "GROUP BY m.receiver_id, m.sender_id " +
+                   "ON CONFLICT (user_id, peer_id) DO UPDATE SET " +
+                   "last_read_message_id = GREATEST(message_read_watermarks.last_read_message_id, EXCLUDED.last_read_message_id), " +
+                   "updated_at = EXCLUDED.updated_at",
+           nativeQuery = true)
+    int advanceInConversation(@Param("userId") Long userId,
+                              @Param("conversationKey") String conversationKey,
+                              @Param("upTo") Long upToMessageId);
+
+    @Modifying
+    @Query(value = "INSERT INTO message_read_watermarks (id, user_id, peer_id, last_read_message_id, updated_at) " +
+                   "SELECT nextval('message_read_watermarks_seq'), m.receiver_id, m.sender_id, m.id, now() FROM messages m " +
+                   "WHERE m.id = :messageId AND m.receiver_id = :userId " +
+                   "ON CONFLICT (user_id, peer_id) DO UPDATE SET " +
+                   "last_read_message_id = GREATEST(message_read_watermarks.last_read_message_id, EXCLUDED.last_read_message_id), " +
+                   "updated_at = EXCLUDED.updated_at",
+           nativeQuery = true)
+    int advanceToMessage(@Param("userId") Long userId, @Param("messageId") Long messageId);
+}
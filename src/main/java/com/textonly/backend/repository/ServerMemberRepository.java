@@ -0,0 +1,38 @@
+package com.textonly.backend.repository;
+
+import com.textonly.backend.model.ServerMember;
+import com.textonly.backend.model.ServerMemberId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ServerMemberRepository extends JpaRepository<ServerMember, ServerMemberId> {
+
+    boolean existsByServerIdAndUserId(Long serverId, Long userId);
+
+    @Query("SELECT m.userId FROM ServerMember m WHERE m.serverId = :serverId")
+    List<Long> findUserIds(@Param("serverId") Long serverId);
+
+    @Query("SELECT m.serverId FROM ServerMember m WHERE m.userId = :userId")
+    List<Long> findServerIds(@Param("userId") Long userId);
+
+    // Returns 0 when the user is already a member
+    @Modifying
+    @Query(value = "INSERT INTO server_members (server_id, user_id) VALUES (:serverId, :userId) " +
+                   "ON CONFLICT (server_id, user_id) DO NOTHING",
+           nativeQuery = true)
+    int addMember(@Param("serverId") Long serverId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM ServerMember m WHERE m.serverId = :serverId AND m.userId = :userId")
+    int removeMember(@Param("serverId") Long serverId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM ServerMember m WHERE m.serverId = :serverId")
+    int deleteByServer(@Param("serverId") Long serverId);
+}
@@ -1,12 +1,24 @@
 package com.textonly.backend.repository;
 
+import com.textonly.backend.dto.ServerOverviewDTO;
 import com.textonly.backend.model.Server;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface ServerRepository extends JpaRepository<Server, Long> {
     List<Server> findByOwnerId(Long ownerId);
-    List<Server> findByMembers_Id(Long userId);
+
+    // Index lookup on idx_server_members_user instead of walking a @ManyToMany collection
+    @Query("SELECT s FROM Server s JOIN ServerMember m ON m.serverId = s.id WHERE m.userId = :userId " +
+           "ORDER BY s.id")
+    List<Server> findByMemberId(@Param("userId") Long userId);
+
+    @Query("SELECT new com.textonly.backend.dto.ServerOverviewDTO(s.id, s.name, s.iconUrl) " +
+           "FROM Server s JOIN ServerMember m ON m.serverId = s.id WHERE m.userId = :userId " +
+           "ORDER BY s.id")
+    List<ServerOverviewDTO> findOverviewByMemberId(@Param("userId") Long userId);
 }
@@ -1,12 +1,23 @@
 package com.textonly.backend.repository;
 
+import com.textonly.backend.dto.TransactionDTO;
 import com.textonly.backend.model.Transaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findByUserIdOrderByCreatedAtDesc(Long userId);
     List<Transaction> findTop20ByUserIdOrderByCreatedAtDesc(Long userId);
+
+    // Newest first, walking back from beforeSeq on the (user_id, seq) index; limit through the Pageable
+    @Query("SELECT new com.textonly.backend.dto.TransactionDTO(t.id, t.seq, t.type, t.amount, t.balanceAfter, " +
+           "t.description, t.createdAt) FROM Transaction t " +
+           "WHERE t.user.id = :userId AND t.seq < :beforeSeq ORDER BY t.seq DESC")
+    List<TransactionDTO> findHistoryBefore(@Param("userId") Long userId,
+                                           @Param("beforeSeq") long beforeSeq,
+                                           Pageable page);
 }
@@ -0,0 +1,11 @@
+package com.textonly.backend.repository;
+
+import com.textonly.backend.model.UnreadCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface UnreadCounterRepository extends JpaRepository<UnreadCounter, Long> {
+    List<UnreadCounter> findByUserId(Long userId);
+}
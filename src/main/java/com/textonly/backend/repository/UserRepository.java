@@ -2,6 +2,8 @@ package com.textonly.backend.repository;
 
 import com.textonly.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,5 +12,42 @@ import java.util.List;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
-    List<User> findByDisplayNameContainingIgnoreCase(String displayName);
+
+    @Query("SELECT u.id, u.displayName FROM User u WHERE u.isActive IS NULL OR u.isActive = true")
+    List<Object[]> findActiveDisplayNames();
+
+    // Search rows ordered by (lower(display_name) COLLATE "C", id). The C collation lets the
+    // btree in migration 009 serve both the LIKE 'q%' range and the ORDER BY, so a prefix
+    // page stops after `limit` index entries; substring matches go through the trigram index.
+    String SEARCH_COLUMNS = "SELECT u.id AS \"id\", u.email AS \"email\", u.display_name AS \"displayName\", " +
+            "u.avatar_url AS \"avatarUrl\", lower(u.display_name) AS \"sortKey\" " +
+            "FROM users u WHERE u.is_active IS NOT FALSE ";
+    String SEARCH_AFTER = "AND (lower(u.display_name) COLLATE \"C\", u.id) > (:afterKey, :afterId) " +
+            "ORDER BY lower(u.display_name) COLLATE \"C\", u.id LIMIT :limit";
+
+    interface SearchRow {
+        Long getId();
+        String getEmail();
+        String getDisplayName();
+        String getAvatarUrl();
+        String getSortKey();
+    }
+
+    @Query(value = SEARCH_COLUMNS +
+            "AND lower(u.display_name) COLLATE \"C\" LIKE :prefix " + SEARCH_AFTER,
+            nativeQuery = true)
+    List<SearchRow> searchByPrefix(@Param("prefix") String prefix,
+                                   @Param("afterKey") String afterKey,
+                                   @Param("afterId") Long afterId,
+                                   @Param("limit") int limit);
+
+    @Query(value = SEARCH_COLUMNS +
+            "AND lower(u.display_name) LIKE :contains " +
+            "AND lower(u.display_name) COLLATE \"C\" NOT LIKE :prefix " + SEARCH_AFTER,
+            nativeQuery = true)
+    List<SearchRow> searchBySubstring(@Param("contains") String contains,
+                                      @Param("prefix") String prefix,
+                                      @Param("afterKey") String afterKey,
+                                      @Param("afterId") Long afterId,
+                                      @Param("limit") int limit);
 }
@@ -6,6 +6,7 @@ import com.textonly.backend.dto.AuthResponseDTO;
 import com.textonly.backend.model.User;
 import com.textonly.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -24,6 +25,12 @@ public class AuthService {
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PresenceService presenceService;
+
     public AuthResponseDTO register(AuthRequestDTO request) {
         // Check if user exists
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
@@ -35,13 +42,15 @@ public class AuthService {
                 .email(request.getEmail())
                 .password(passwordEncoder.encode(request.getPassword()))
                 .displayName(request.getDisplayName() != null ? request.getDisplayName() : request.getEmail())
-                .status("online")
+                .status(PresenceService.ONLINE)
                 .isActive(true)
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
 
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserDisplayNameChangedEvent(savedUser.getId(), null, savedUser.getDisplayName()));
+        presenceService.login(savedUser.getId());
 
         // Generate JWT
         String token = jwtTokenProvider.generateToken(savedUser.getEmail(), savedUser.getId());
@@ -51,7 +60,7 @@ public class AuthService {
                 .email(savedUser.getEmail())
                 .displayName(savedUser.getDisplayName())
                 .avatarUrl(savedUser.getAvatarUrl())
-                .status(savedUser.getStatus())
+                .status(presenceService.getStatus(savedUser.getId()))
                 .token(token)
                 .tokenExpiresAt(LocalDateTime.now().plusSeconds(jwtTokenProvider.getExpirationTime() / 1000))
                 .build();
@@ -70,10 +79,8 @@ public class AuthService {
             throw new RuntimeException("Invalid password");
         }
 
-        // Update status to online
-        user.setStatus("online");
-        user.setUpdatedAt(LocalDateTime.now());
-        userRepository.save(user);
+        // In memory only; PresenceService writes the status column in batches
+        presenceService.login(user.getId());
 
         // Generate JWT
         String token = jwtTokenProvider.generateToken(user.getEmail(), user.getId());
@@ -83,20 +90,14 @@ public class AuthService {
                 .email(user.getEmail())
                 .displayName(user.getDisplayName())
                 .avatarUrl(user.getAvatarUrl())
-                .status(user.getStatus())
+                .status(presenceService.getStatus(user.getId()))
                 .token(token)
                 .tokenExpiresAt(LocalDateTime.now().plusSeconds(jwtTokenProvider.getExpirationTime() / 1000))
                 .build();
     }
 
     public void logout(Long userId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            user.setStatus("offline");
-            user.setUpdatedAt(LocalDateTime.now());
-            userRepository.save(user);
-        }
+        presenceService.logout(userId);
     }
 
     public boolean validateToken(String token) {
@@ -0,0 +1,244 @@
+package com.textonly.backend.service;
+
+import com.textonly.backend.dto.ChannelMessageDTO;
+import com.textonly.backend.dto.CursorPage;
+import com.textonly.backend.dto.KeysetCursor;
+import com.textonly.backend.repository.ChannelMessageRepository;
+import com.textonly.backend.websocket.ChannelMessageSentEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Newest messages of recently read channels, so the first page of a busy channel is served
+ * without a query. Each channel keeps a bounded ring of its last {@code messages-per-channel}
+ * messages, appended after every committed send. Channels are evicted least-recently-used
+ * once either the channel count or the total number of cached messages exceeds its cap.
+ * Cached DTOs are shared between requests and must be treated as read-only.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChannelMessageCache {
+
+    private static final Comparator<ChannelMessageDTO> NEWEST_LAST =
+            Comparator.comparing(ChannelMessageDTO::getCreatedAt).thenComparing(ChannelMessageDTO::getId);
+
+    private final ChannelMessageRepository channelMessageRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${channel.cache.max-channels:1000}")
+    private int maxChannels;
+
+    @Value("${channel.cache.messages-per-channel:128}")
+    private int messagesPerChannel;
+
+    @Value("${channel.cache.max-messages:50000}")
+    private int maxMessages;
+
+    // Access-ordered, so iteration starts at the least recently used channel. Guarded by itself.
+    private final Map<Long, ChannelBuffer> buffers = new LinkedHashMap<>(16, 0.75f, true);
+    private int cachedMessages;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @PostConstruct
+    void registerMetrics() {
+        FunctionCounter.builder("channel.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("channel.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("channel.cache.evictions", evictions, AtomicLong::get)
+                .register(meterRegistry);
+        Gauge.builder("channel.cache.channels", this, cache -> cache.size()).register(meterRegistry);
+        Gauge.builder("channel.cache.messages", this, cache -> cache.messageCount()).register(meterRegistry);
+    }
+
+    /**
+     * Newest page of the channel (newest first), or null if it can't be answered from memory.
+     * A miss loads the channel so following requests hit.
+     */
+    public CursorPage<ChannelMessageDTO> getLatest(Long channelId, int limit) {
+        ChannelBuffer buffer;
+        synchronized (buffers) {
+            buffer = buffers.get(channelId);
+            if (buffer != null && buffer.loaded) {
+                CursorPage<ChannelMessageDTO> page = buffer.latest(limit);
+                if (page != null) {
+                    hits.incrementAndGet();
+                    return page;
+                }
+            }
+            misses.incrementAndGet();
+            if (buffer != null) {
+                // Already loaded (page too large for the ring) or being loaded by another request
+                return null;
+            }
+            // Register before reading, so sends committed during the load are appended to it
+            buffer = new ChannelBuffer();
+            buffers.put(channelId, buffer);
+        }
+
+        List<ChannelMessageDTO> newestFirst;
+        try {
+            newestFirst = channelMessageRepository.findLatestInChannel(channelId, PageRequest.of(0, messagesPerChannel));
+        } catch (RuntimeException e) {
+            // Don't leave a never-loaded buffer behind: every later request would treat the channel as loading
+            synchronized (buffers) {
+                if (buffers.remove(channelId, buffer)) {
+                    cachedMessages -= buffer.messages.size();
+                }
+            }
+            throw e;
+        }
+
+        synchronized (buffers) {
+            if (buffers.get(channelId) != buffer) {
+                return null; // evicted while loading
+            }
+            cachedMessages += buffer.load(newestFirst, newestFirst.size() < messagesPerChannel);
+            CursorPage<ChannelMessageDTO> page = buffer.latest(limit);
+            evictOverflow();
+            return page;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChannelMessageSent(ChannelMessageSentEvent event) {
+        ChannelMessageDTO message = event.getMessage();
+        synchronized (buffers) {
+            ChannelBuffer buffer = buffers.get(message.getChannelId());
+            if (buffer != null) {
+                cachedMessages += buffer.add(message);
+                evictOverflow();
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onServerDeleted(ServerDeletedEvent event) {
+        evict(event.getChannelIds());
+    }
+
+    public void evict(Collection<Long> channelIds) {
+        synchronized (buffers) {
+            for (Long channelId : channelIds) {
+                ChannelBuffer removed = buffers.remove(channelId);
+                if (removed != null) {
+                    cachedMessages -= removed.messages.size();
+                }
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (buffers) {
+            return buffers.size();
+        }
+    }
+
+    public int messageCount() {
+        synchronized (buffers) {
+            return cachedMessages;
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<ChannelBuffer> eldest = buffers.values().iterator();
+        while ((buffers.size() > maxChannels || cachedMessages > maxMessages) && eldest.hasNext()) {
+            cachedMessages -= eldest.next().messages.size();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Ring of a channel's newest messages, oldest first. {@code complete} means the ring holds
+     * the channel's entire history, so a short page needs no next cursor.
+     */
+    private class ChannelBuffer {
+
+        private final Deque<ChannelMessageDTO> messages = new ArrayDeque<>(messagesPerChannel);
+        private boolean loaded;
+        private boolean complete;
+
+        // Returns the change in the number of cached messages
+        int load(List<ChannelMessageDTO> newestFirst, boolean wholeChannel) {
+            int before = messages.size();
+            // Sends committed while loading are already in the ring and may also be in the result
+            List<ChannelMessageDTO> merged = new ArrayList<>(messages);
+            Set<Long> ids = new HashSet<>();
+            merged.forEach(m -> ids.add(m.getId()));
+            for (ChannelMessageDTO message : newestFirst) {
+                if (ids.add(message.getId())) {
+                    merged.add(message);
+                }
+            }
+            merged.sort(NEWEST_LAST);
+
+            messages.clear();
+            int skip = Math.max(0, merged.size() - messagesPerChannel);
+            merged.subList(skip, merged.size()).forEach(messages::addLast);
+            complete = wholeChannel && skip == 0;
+            loaded = true;
+            return messages.size() - before;
+        }
+
+        int add(ChannelMessageDTO message) {
+            int before = messages.size();
+            ChannelMessageDTO newest = messages.peekLast();
+            if (newest == null || NEWEST_LAST.compare(message, newest) > 0) {
+                messages.addLast(message);
+            } else {
+                // Commits can land slightly out of order; rare enough to just rebuild the ring
+                List<ChannelMessageDTO> ordered = new ArrayList<>(messages);
+                ordered.add(message);
+                ordered.sort(NEWEST_LAST);
+                messages.clear();
+                ordered.forEach(messages::addLast);
+            }
+            while (messages.size() > messagesPerChannel) {
+                messages.pollFirst();
+                complete = false;
+            }
+            return messages.size() - before;
+        }
+
+        CursorPage<ChannelMessageDTO> latest(int limit) {
+            boolean hasMore = messages.size() > limit;
+            if (!hasMore && !complete) {
+                return null;
+            }
+            List<ChannelMessageDTO> page = new ArrayList<>(Math.min(limit, messages.size()));
+            Iterator<ChannelMessageDTO> newestFirst = messages.descendingIterator();
+            while (page.size() < limit && newestFirst.hasNext()) {
+                page.add(newestFirst.next());
+            }
+            if (!hasMore) {
+                return new CursorPage<>(page, null);
+            }
+            ChannelMessageDTO last = page.get(limit - 1);
+            return new CursorPage<>(page, new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.textonly.backend.service;
 
+import com.textonly.backend.dto.ChannelMessageDTO;
+import com.textonly.backend.dto.CursorPage;
+import com.textonly.backend.dto.KeysetCursor;
 import com.textonly.backend.model.Channel;
 import com.textonly.backend.model.ChannelMessage;
 import com.textonly.backend.model.Server;
@@ -8,7 +11,11 @@ import com.textonly.backend.repository.ChannelMessageRepository;
 import com.textonly.backend.repository.ChannelRepository;
 import com.textonly.backend.repository.ServerRepository;
 import com.textonly.backend.repository.UserRepository;
+import com.textonly.backend.websocket.ChannelMessageSentEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,6 +30,9 @@ public class ChannelService {
     private final ChannelMessageRepository channelMessageRepository;
     private final ServerRepository serverRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChannelMessageCache channelMessageCache;
+    private final ServerMembershipService membershipService;
 
     @Transactional
     public Channel createChannel(String name, String channelType, Long serverId) {
@@ -51,7 +61,8 @@ public class ChannelService {
     }
 
     @Transactional
-    public ChannelMessage sendMessage(Long channelId, Long userId, String content, String messageType) {
+    public ChannelMessageDTO sendMessage(Long channelId, Long userId, String content, String messageType) {
+        membershipService.requireChannelMember(channelId, userId);
         Channel channel = channelRepository.findById(channelId)
                 .orElseThrow(() -> new RuntimeException("Channel not found"));
         
@@ -69,20 +80,65 @@ public class ChannelService {
                 .channel(channel)
                 .sender(sender)
                 .content(content)
-                .messageType(type)
-                .timestamp(LocalDateTime.now())
+                .type(type)
+                .createdAt(LocalDateTime.now())
                 .build();
 
-        return channelMessageRepository.save(message);
+        ChannelMessageDTO saved = mapToDTO(channelMessageRepository.save(message));
+        eventPublisher.publishEvent(new ChannelMessageSentEvent(saved));
+        return saved;
     }
 
-    public List<ChannelMessage> getChannelMessages(Long channelId, int limit) {
-        if (limit <= 0 || limit > 100) {
-            limit = 50;
+    /**
+     * One page of channel history. Without a cursor, returns the newest messages (newest first);
+     * {@code before} pages back through older history, {@code after} pages forward (oldest first).
+     */
+    public CursorPage<ChannelMessageDTO> getChannelMessages(Long channelId, Long userId,
+                                                            String before, String after, int limit) {
+        membershipService.requireChannelMember(channelId, userId);
+        limit = limit <= 0 ? 50 : Math.min(limit, 100);
+        // The newest page is what almost every client asks for; try memory first
+        if (before == null && after == null) {
+            CursorPage<ChannelMessageDTO> cached = channelMessageCache.getLatest(channelId, limit);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // Fetch one extra row to know whether another page exists
+        Pageable page = PageRequest.of(0, limit + 1);
+
+        List<ChannelMessageDTO> messages;
+        if (before != null) {
+            KeysetCursor cursor = KeysetCursor.decode(before);
+            messages = channelMessageRepository.findInChannelBefore(
+                    channelId, cursor.getCreatedAt(), cursor.getId(), page);
+        } else if (after != null) {
+            KeysetCursor cursor = KeysetCursor.decode(after);
+            messages = channelMessageRepository.findInChannelAfter(
+                    channelId, cursor.getCreatedAt(), cursor.getId(), page);
+        } else {
+            messages = channelMessageRepository.findLatestInChannel(channelId, page);
         }
-        return channelMessageRepository.findTop50ByChannelIdOrderByTimestampDesc(channelId)
-                .stream()
-                .limit(limit)
-                .toList();
+
+        if (messages.size() <= limit) {
+            return new CursorPage<>(messages, null);
+        }
+        messages = messages.subList(0, limit);
+        ChannelMessageDTO last = messages.get(limit - 1);
+        return new CursorPage<>(messages, new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    private ChannelMessageDTO mapToDTO(ChannelMessage message) {
+        return ChannelMessageDTO.builder()
+                .id(message.getId())
+                .channelId(message.getChannel().getId())
+                .senderId(message.getSender().getId())
+                .senderName(message.getSender().getDisplayName())
+                .senderAvatarUrl(message.getSender().getAvatarUrl())
+                .content(message.getContent())
+                .type(message.getType().name())
+                .createdAt(message.getCreatedAt())
+                .build();
     }
 }
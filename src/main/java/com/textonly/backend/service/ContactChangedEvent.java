@@ -0,0 +1,13 @@
+package com.textonly.backend.service;
+
+import lombok.Value;
+
+/**
+ * {@code userId} added ({@code added = true}) or removed {@code contactId} from their contacts.
+ */
+@Value
+public class ContactChangedEvent {
+    Long userId;
+    Long contactId;
+    boolean added;
+}
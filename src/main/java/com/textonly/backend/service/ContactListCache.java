@@ -0,0 +1,191 @@
+package com.textonly.backend.service;
+
+import com.textonly.backend.dto.UserCompletionDTO;
+import com.textonly.backend.dto.UserProfileDTO;
+import com.textonly.backend.repository.ContactRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+
+/**
+ * Contact lists of recently active users, loaded with one projection query and kept until
+ * the list or one of its contacts' profiles changes. Entries are evicted least-recently-used
+ * beyond {@code contacts.cache.max-users}. The status in cached DTOs is whatever the row
+ * held at load time; callers take it from {@link PresenceService}. Cached DTOs are shared
+ * between requests and must be treated as read-only. The same entry also answers contact
+ * name completions ({@link #getContactNames}), so autocomplete keystrokes don't query either.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContactListCache {
+
+    private final ContactRepository contactRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${contacts.cache.max-users:10000}")
+    private int maxUsers;
+
+    // Access-ordered, so iteration starts at the least recently used user. Guarded by itself.
+    private final Map<Long, ContactList> lists = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Bumped on every invalidation; a load that overlaps one is not cached
+    private long changeCount;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @PostConstruct
+    void registerMetrics() {
+        FunctionCounter.builder("contacts.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("contacts.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss").register(meterRegistry);
+    }
+
+    public List<UserProfileDTO> getContacts(Long userId) {
+        return list(userId).profiles;
+    }
+
+    public ContactNames getContactNames(Long userId) {
+        return list(userId).names();
+    }
+
+    private ContactList list(Long userId) {
+        long stamp;
+        synchronized (lists) {
+            ContactList cached = lists.get(userId);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            misses.incrementAndGet();
+            stamp = changeCount;
+        }
+
+        ContactList loaded = new ContactList(List.copyOf(contactRepository.findContactProfiles(userId)));
+
+        synchronized (lists) {
+            if (changeCount == stamp) {
+                lists.put(userId, loaded);
+                Iterator<ContactList> eldest = lists.values().iterator();
+                while (lists.size() > maxUsers && eldest.hasNext()) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContactChanged(ContactChangedEvent event) {
+        synchronized (lists) {
+            changeCount++;
+            lists.remove(event.getUserId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileUpdated(UserProfileUpdatedEvent event) {
+        long userId = event.getUserId();
+        synchronized (lists) {
+            changeCount++;
+            // Profile edits are rare next to list reads; a binary search per cached list is cheap
+            lists.values().removeIf(list -> Arrays.binarySearch(list.contactIds, userId) >= 0);
+        }
+    }
+
+    private static final class ContactList {
+
+        private final List<UserProfileDTO> profiles;
+        private final long[] contactIds; // sorted
+        private volatile ContactNames names; // built on the first completion request
+
+        ContactList(List<UserProfileDTO> profiles) {
+            this.profiles = profiles;
+            this.contactIds = profiles.stream().mapToLong(UserProfileDTO::getId).sorted().toArray();
+        }
+
+        ContactNames names() {
+            ContactNames built = names;
+            if (built == null) {
+                // Racing builders produce equal results, so whichever write lands is fine
+                built = new ContactNames(profiles, contactIds);
+                names = built;
+            }
+            return built;
+        }
+    }
+
+    /**
+     * One user's contacts by normalized display name ({@link UserAutocompleteIndex#normalize}),
+     * sorted by (key, id) like the index itself.
+     */
+    public static final class ContactNames {
+
+        private final String[] keys;
+        private final String[] names;
+        private final long[] ids;
+        private final long[] contactIds; // sorted
+
+        private ContactNames(List<UserProfileDTO> profiles, long[] contactIds) {
+            List<UserProfileDTO> named = profiles.stream().filter(p -> p.getDisplayName() != null).toList();
+            String[] unsortedKeys = named.stream().map(p -> UserAutocompleteIndex.normalize(p.getDisplayName()))
+                    .toArray(String[]::new);
+            Integer[] order = new Integer[named.size()];
+            Arrays.setAll(order, i -> i);
+            Arrays.sort(order, Comparator.<Integer, String>comparing(i -> unsortedKeys[i])
+                    .thenComparingLong(i -> named.get(i).getId()));
+
+            this.keys = new String[order.length];
+            this.names = new String[order.length];
+            this.ids = new long[order.length];
+            for (int i = 0; i < order.length; i++) {
+                keys[i] = unsortedKeys[order[i]];
+                names[i] = named.get(order[i]).getDisplayName();
+                ids[i] = named.get(order[i]).getId();
+            }
+            this.contactIds = contactIds;
+        }
+
+        public boolean contains(long userId) {
+            return Arrays.binarySearch(contactIds, userId) >= 0;
+        }
+
+        /**
+         * Contacts whose key starts with the (already normalized) prefix, in (key, id) order,
+         * keeping only those the predicate accepts.
+         */
+        public List<UserCompletionDTO> startingWith(String key, BiPredicate<String, Long> accept) {
+            int from = Arrays.binarySearch(keys, key);
+            if (from < 0) {
+                from = -from - 1;
+            } else {
+                while (from > 0 && keys[from - 1].equals(key)) {
+                    from--;
+                }
+            }
+            List<UserCompletionDTO> matches = new ArrayList<>();
+            for (int i = from; i < keys.length && keys[i].startsWith(key); i++) {
+                if (accept.test(keys[i], ids[i])) {
+                    matches.add(new UserCompletionDTO(ids[i], names[i], true));
+                }
+            }
+            return matches;
+        }
+    }
+}
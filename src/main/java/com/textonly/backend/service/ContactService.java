@@ -1,16 +1,20 @@
 package com.textonly.backend.service;
 
+import com.textonly.backend.dto.ContactImportDTO;
 import com.textonly.backend.dto.UserProfileDTO;
-import com.textonly.backend.model.Contact;
 import com.textonly.backend.model.User;
 import com.textonly.backend.repository.ContactRepository;
 import com.textonly.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.sql.PreparedStatement;
 import java.util.List;
-import java.util.Optional;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,48 +26,93 @@ public class ContactService {
     @Autowired
     private UserRepository userRepository;
 
-    public List<UserProfileDTO> getContacts(Long userId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) {
-            throw new RuntimeException("User not found");
-        }
+    @Autowired
+    private PresenceService presenceService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ContactListCache contactListCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${contacts.import.max-entries:5000}")
+    private int maxImportEntries;
 
-        return contactRepository.findByUser(userOpt.get())
+    // Resolves ids and emails to users and inserts every missing pair in one statement
+    private static final String IMPORT_SQL =
+            "INSERT INTO contacts (id, user_id, contact_id, created_at) " +
+            "SELECT nextval('contacts_seq'), ?, u.id, now() FROM users u " +
+            "WHERE (u.id = ANY(?) OR u.email = ANY(?)) AND u.id <> ? " +
+            "ON CONFLICT (user_id, contact_id) DO NOTHING " +
+            "RETURNING contact_id";
+
+    public List<UserProfileDTO> getContacts(Long userId) {
+        // Cached entries are shared, so each response gets its own copies with the live status
+        return contactListCache.getContacts(userId)
                 .stream()
-                .map(contact -> mapContactToDTO(contact.getContact()))
+                .map(contact -> UserProfileDTO.builder()
+                        .id(contact.getId())
+                        .email(contact.getEmail())
+                        .displayName(contact.getDisplayName())
+                        .avatarUrl(contact.getAvatarUrl())
+                        .status(presenceService.getStatus(contact.getId()))
+                        .build())
                 .collect(Collectors.toList());
     }
 
+    @Transactional
     public UserProfileDTO addContact(Long userId, Long contactId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        Optional<User> contactOpt = userRepository.findById(contactId);
+        if (userId.equals(contactId)) {
+            throw new RuntimeException("Cannot add yourself as a contact");
+        }
+        User contact = userRepository.findById(contactId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (userOpt.isEmpty() || contactOpt.isEmpty()) {
-            throw new RuntimeException("User not found");
+        // Adding an existing contact is a no-op rather than an error
+        if (contactRepository.addContact(userId, contactId) > 0) {
+            eventPublisher.publishEvent(new ContactChangedEvent(userId, contactId, true));
         }
+        return mapContactToDTO(contact);
+    }
 
-        // Check if already exists
-        if (contactRepository.findByUserAndContact(userOpt.get(), contactOpt.get()).isPresent()) {
-            throw new RuntimeException("Contact already exists");
+    @Transactional
+    public void removeContact(Long userId, Long contactId) {
+        if (contactRepository.removeContact(userId, contactId) > 0) {
+            eventPublisher.publishEvent(new ContactChangedEvent(userId, contactId, false));
         }
+    }
 
-        Contact contact = Contact.builder()
-                .user(userOpt.get())
-                .contact(contactOpt.get())
-                .createdAt(LocalDateTime.now())
-                .build();
+    // Not transactional: the insert is one atomic statement, and the list returned below must be
+    // read after the contact-change events have invalidated the cached one
+    public List<UserProfileDTO> importContacts(Long userId, ContactImportDTO request) {
+        Long[] ids = request.getUserIds() == null ? new Long[0]
+                : request.getUserIds().stream().filter(Objects::nonNull).distinct().toArray(Long[]::new);
+        String[] emails = request.getEmails() == null ? new String[0]
+                : request.getEmails().stream().filter(Objects::nonNull).map(String::trim)
+                        .filter(email -> !email.isEmpty()).distinct().toArray(String[]::new);
 
-        contactRepository.save(contact);
-        return mapContactToDTO(contactOpt.get());
-    }
+        if (ids.length + emails.length > maxImportEntries) {
+            throw new RuntimeException("Too many contacts, at most " + maxImportEntries + " per import");
+        }
 
-    public void removeContact(Long userId, Long contactId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        Optional<User> contactOpt = userRepository.findById(contactId);
+        if (ids.length + emails.length > 0) {
+            List<Long> added = jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(IMPORT_SQL);
+                ps.setLong(1, userId);
+                ps.setArray(2, connection.createArrayOf("bigint", ids));
+                ps.setArray(3, connection.createArrayOf("varchar", emails));
+                ps.setLong(4, userId);
+                return ps;
+            }, (rs, rowNum) -> rs.getLong(1));
 
-        if (userOpt.isPresent() && contactOpt.isPresent()) {
-            contactRepository.deleteByUserAndContact(userOpt.get(), contactOpt.get());
+            for (Long contactId : added) {
+                eventPublisher.publishEvent(new ContactChangedEvent(userId, contactId, true));
+            }
         }
+        return getContacts(userId);
     }
 
     private UserProfileDTO mapContactToDTO(User user) {
@@ -72,7 +121,7 @@ public class ContactService {
                 .email(user.getEmail())
                 .displayName(user.getDisplayName())
                 .avatarUrl(user.getAvatarUrl())
-                .status(user.getStatus())
+                .status(presenceService.getStatus(user.getId()))
                 .build();
     }
 }
@@ -0,0 +1,368 @@
+package com.textonly.backend.service;
+
+import com.textonly.backend.auth.JwtPrincipal;
+import com.textonly.backend.dto.ChannelMessageDTO;
+import com.textonly.backend.dto.InboundMessageDTO;
+import com.textonly.backend.dto.MessageDTO;
+import com.textonly.backend.model.ChannelMessage;
+import com.textonly.backend.model.Message;
+import com.textonly.backend.websocket.ChannelMessageSentEvent;
+import com.textonly.backend.websocket.DirectMessageSentEvent;
+import com.textonly.backend.websocket.SyncPublisher;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists messages sent over STOMP. Frames are queued in a bounded buffer and a single
+ * writer thread drains it in batches, storing each batch with JDBC batch inserts in one
+ * transaction. After commit the messages are pushed like REST-sent ones and the sender
+ * receives an ack (or a rejection) per message on /user/queue/acks.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MessageBatchWriter {
+
+    private static final int MAX_CONTENT_LENGTH = 5000;
+
+    private static final String INSERT_DIRECT_SQL =
+            "INSERT INTO messages (id, sender_id, receiver_id, conversation_key, content, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CHANNEL_SQL =
+            "INSERT INTO channel_messages (id, channel_id, sender_id, content, message_type, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SyncPublisher syncPublisher;
+    private final ServerMembershipService membershipService;
+
+    @Value("${chat.batch.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${chat.batch.max-size:100}")
+    private int maxBatchSize;
+
+    private BlockingQueue<PendingMessage> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writerThread = new Thread(this::drainLoop, "message-batch-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // Let the writer finish what is already queued
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public void submitDirect(JwtPrincipal sender, Long receiverId, InboundMessageDTO message) {
+        submit(new PendingMessage(Kind.DIRECT, sender, receiverId, message.getClientMessageId(),
+                message.getContent(), ChannelMessage.MessageType.TEXT, now()));
+    }
+
+    public void submitChannel(JwtPrincipal sender, Long channelId, InboundMessageDTO message) {
+        submit(new PendingMessage(Kind.CHANNEL, sender, channelId, message.getClientMessageId(),
+                message.getContent(), parseType(message.getMessageType()), now()));
+    }
+
+    private void submit(PendingMessage message) {
+        if (message.getContent() == null || message.getContent().isBlank()
+                || message.getContent().length() > MAX_CONTENT_LENGTH) {
+            reject(message, "invalid content");
+        } else if (!running || !queue.offer(message)) {
+            // Bounded queue: push back on the client instead of buffering without limit
+            reject(message, "server busy");
+        }
+    }
+
+    private void drainLoop() {
+        List<PendingMessage> batch = new ArrayList<>(maxBatchSize);
+        // Messages of the current batch that already have their outcome: rejected, or stored
+        Set<PendingMessage> resolved = Collections.newSetFromMap(new IdentityHashMap<>());
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMessage first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                writeBatch(batch, resolved);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                List<PendingMessage> unresolved = batch.stream().filter(message -> !resolved.contains(message)).toList();
+                log.error("Failed to persist {} of a batch of {} messages", unresolved.size(), batch.size(), e);
+                unresolved.forEach(message -> reject(message, "not stored"));
+            } finally {
+                batch.clear();
+                resolved.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingMessage> batch, Set<PendingMessage> resolved) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> channelIds = new HashSet<>();
+        for (PendingMessage message : batch) {
+            userIds.add(message.getSender().getUserId());
+            (message.getKind() == Kind.DIRECT ? userIds : channelIds).add(message.getTargetId());
+        }
+        Map<Long, UserSummary> users = loadUsers(userIds);
+        Set<Long> existingChannels = loadChannelIds(channelIds);
+
+        List<PendingMessage> direct = new ArrayList<>();
+        List<PendingMessage> channel = new ArrayList<>();
+        for (PendingMessage message : batch) {
+            if (!users.containsKey(message.getSender().getUserId())) {
+                reject(message, "unknown sender", resolved);
+            } else if (message.getKind() == Kind.DIRECT && users.containsKey(message.getTargetId())) {
+                direct.add(message);
+            } else if (message.getKind() == Kind.CHANNEL && existingChannels.contains(message.getTargetId())) {
+                if (membershipService.isChannelMember(message.getTargetId(), message.getSender().getUserId())) {
+                    channel.add(message);
+                } else {
+                    reject(message, "not a member", resolved);
+                }
+            } else {
+                reject(message, "unknown recipient", resolved);
+            }
+        }
+
+        List<MessageDTO> storedDirect = new ArrayList<>();
+        List<ChannelMessageDTO> storedChannel = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> directIds = insertDirect(direct);
+            for (int i = 0; i < direct.size(); i++) {
+                MessageDTO dto = toMessageDTO(direct.get(i), directIds.get(i), users);
+                storedDirect.add(dto);
+                // Delivered by SyncPublisher and counted as unread once this transaction commits
+                eventPublisher.publishEvent(new DirectMessageSentEvent(dto));
+            }
+            List<Long> channelIdsStored = insertChannel(channel);
+            for (int i = 0; i < channel.size(); i++) {
+                ChannelMessageDTO dto = toChannelMessageDTO(channel.get(i), channelIdsStored.get(i), users);
+                storedChannel.add(dto);
+                eventPublisher.publishEvent(new ChannelMessageSentEvent(dto));
+            }
+        });
+
+        // Committed: from here on a failure must not reach the sender as a rejection, or the
+        // client would resend a message that is already stored
+        resolved.addAll(direct);
+        resolved.addAll(channel);
+        for (int i = 0; i < direct.size(); i++) {
+            acknowledge(direct.get(i), storedDirect.get(i).getId());
+        }
+        for (int i = 0; i < channel.size(); i++) {
+            acknowledge(channel.get(i), storedChannel.get(i).getId());
+        }
+    }
+
+    private List<Long> insertDirect(List<PendingMessage> messages) {
+        return insertBatch(INSERT_DIRECT_SQL, Message.ID_SEQUENCE, Message.ID_ALLOCATION_SIZE, messages, (ps, message) -> {
+            Long senderId = message.getSender().getUserId();
+            ps.setLong(2, senderId);
+            ps.setLong(3, message.getTargetId());
+            ps.setString(4, Message.conversationKey(senderId, message.getTargetId()));
+            ps.setString(5, message.getContent());
+            ps.setTimestamp(6, Timestamp.valueOf(message.getCreatedAt()));
+        });
+    }
+
+    private List<Long> insertChannel(List<PendingMessage> messages) {
+        return insertBatch(INSERT_CHANNEL_SQL, ChannelMessage.ID_SEQUENCE, ChannelMessage.ID_ALLOCATION_SIZE,
+                messages, (ps, message) -> {
+            ps.setLong(2, message.getTargetId());
+            ps.setLong(3, message.getSender().getUserId());
+            ps.setString(4, message.getContent());
+            ps.setString(5, message.getMessageType().name());
+            ps.setTimestamp(6, Timestamp.valueOf(message.getCreatedAt()));
+        });
+    }
+
+    // One JDBC batch per statement type, with ids taken up front from the entity's own sequence
+    // and allocation size
+    private List<Long> insertBatch(String sql, String sequence, int blockSize,
+                                   List<PendingMessage> messages, RowBinder binder) {
+        if (messages.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = allocateIds(sequence, blockSize, messages.size());
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, ids.get(i));
+                binder.bind(ps, messages.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return messages.size();
+            }
+        });
+        return ids;
+    }
+
+    /**
+     * Reserves ids the same way Hibernate does for the sequence: each nextval value v stands
+     * for the block (v - blockSize, v], so rows written here never collide with ids assigned
+     * through JPA. With a block size of 1 that is simply one nextval per row, in row order.
+     */
+    private List<Long> allocateIds(String sequence, int blockSize, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            int blocks = (count - ids.size() + blockSize - 1) / blockSize;
+            List<Long> highValues = jdbcTemplate.queryForList(
+                    "SELECT nextval(?) FROM generate_series(1, ?)", Long.class, sequence, blocks);
+            for (Long high : highValues) {
+                // A fresh sequence starts at 1, whose block is just {1}
+                for (long id = Math.max(high - blockSize + 1, 1); id <= high && ids.size() < count; id++) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private Map<Long, UserSummary> loadUsers(Set<Long> userIds) {
+        Map<Long, UserSummary> users = new HashMap<>();
+        namedJdbcTemplate.query("SELECT id, display_name, avatar_url FROM users WHERE id IN (:ids)",
+                Map.of("ids", userIds),
+                rs -> {
+                    users.put(rs.getLong("id"),
+                            new UserSummary(rs.getString("display_name"), rs.getString("avatar_url")));
+                });
+        return users;
+    }
+
+    private Set<Long> loadChannelIds(Set<Long> channelIds) {
+        if (channelIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedJdbcTemplate.queryForList("SELECT id FROM channels WHERE id IN (:ids)",
+                Map.of("ids", channelIds), Long.class));
+    }
+
+    private MessageDTO toMessageDTO(PendingMessage message, Long id, Map<Long, UserSummary> users) {
+        return MessageDTO.builder()
+                .id(id)
+                .senderId(message.getSender().getUserId())
+                .senderName(users.get(message.getSender().getUserId()).getDisplayName())
+                .receiverId(message.getTargetId())
+                .content(message.getContent())
+                .isRead(false)
+                .createdAt(message.getCreatedAt())
+                .build();
+    }
+
+    private ChannelMessageDTO toChannelMessageDTO(PendingMessage message, Long id, Map<Long, UserSummary> users) {
+        UserSummary sender = users.get(message.getSender().getUserId());
+        return ChannelMessageDTO.builder()
+                .id(id)
+                .channelId(message.getTargetId())
+                .senderId(message.getSender().getUserId())
+                .senderName(sender.getDisplayName())
+                .senderAvatarUrl(sender.getAvatarUrl())
+                .content(message.getContent())
+                .type(message.getMessageType().name())
+                .createdAt(message.getCreatedAt())
+                .build();
+    }
+
+    // Stored either way, so a failed ack is only logged
+    private void acknowledge(PendingMessage message, Long id) {
+        try {
+            syncPublisher.sendAck(message.getSender(), message.getClientMessageId(), id);
+        } catch (RuntimeException e) {
+            log.warn("Failed to ack stored message {} of user {}", id, message.getSender().getUserId(), e);
+        }
+    }
+
+    private void reject(PendingMessage message, String reason, Set<PendingMessage> resolved) {
+        // Marked first: if sending the rejection fails, the batch failure must not send a second one
+        resolved.add(message);
+        reject(message, reason);
+    }
+
+    private void reject(PendingMessage message, String reason) {
+        syncPublisher.sendRejection(message.getSender(), message.getClientMessageId(), reason);
+    }
+
+    // Same precision as the stored timestamp, so pushed DTOs match what a later read returns
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private ChannelMessage.MessageType parseType(String messageType) {
+        if (messageType == null) {
+            return ChannelMessage.MessageType.TEXT;
+        }
+        try {
+            return ChannelMessage.MessageType.valueOf(messageType.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ChannelMessage.MessageType.TEXT;
+        }
+    }
+
+    private enum Kind {
+        DIRECT, CHANNEL
+    }
+
+    @FunctionalInterface
+    private interface RowBinder {
+        void bind(PreparedStatement ps, PendingMessage message) throws SQLException;
+    }
+
+    @lombok.Value
+    private static class UserSummary {
+        String displayName;
+        String avatarUrl;
+    }
+
+    @lombok.Value
+    private static class PendingMessage {
+        Kind kind;
+        JwtPrincipal sender;
+        Long targetId; // receiver id for DMs, channel id for channel messages
+        String clientMessageId;
+        String content;
+        ChannelMessage.MessageType messageType;
+        LocalDateTime createdAt;
+    }
+}
@@ -1,18 +1,27 @@
 package com.textonly.backend.service;
 
+import com.textonly.backend.dto.CursorPage;
+import com.textonly.backend.dto.KeysetCursor;
 import com.textonly.backend.dto.MessageCreateDTO;
 import com.textonly.backend.dto.MessageDTO;
+import com.textonly.backend.dto.UnreadCountsDTO;
 import com.textonly.backend.model.Message;
+import com.textonly.backend.model.ReadWatermark;
 import com.textonly.backend.model.User;
 import com.textonly.backend.repository.MessageRepository;
+import com.textonly.backend.repository.ReadWatermarkRepository;
 import com.textonly.backend.repository.UserRepository;
+import com.textonly.backend.websocket.DirectMessageSentEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class MessageService {
@@ -23,6 +32,16 @@ public class MessageService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ReadWatermarkRepository readWatermarkRepository;
+
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional
     public MessageDTO sendMessage(Long senderId, MessageCreateDTO request) {
         Optional<User> senderOpt = userRepository.findById(senderId);
         Optional<User> receiverOpt = userRepository.findById(request.getReceiverId());
@@ -34,46 +53,110 @@ public class MessageService {
         Message message = Message.builder()
                 .sender(senderOpt.get())
                 .receiver(receiverOpt.get())
+                .conversationKey(Message.conversationKey(senderId, request.getReceiverId()))
                 .content(request.getContent())
-                .isRead(false)
                 .createdAt(LocalDateTime.now())
                 .build();
 
         Message savedMessage = messageRepository.save(message);
-        return mapToDTO(savedMessage);
+
+        // Pushed and counted as unread once this transaction commits
+        MessageDTO dto = mapToDTO(savedMessage);
+        eventPublisher.publishEvent(new DirectMessageSentEvent(dto));
+        return dto;
     }
 
-    public List<MessageDTO> getConversation(Long userId1, Long userId2) {
-        return messageRepository.findConversationBetween(userId1, userId2)
-                .stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+    /**
+     * One page of a conversation. Without a cursor, returns the newest messages (newest first);
+     * {@code before} pages back through older history, {@code after} pages forward (oldest first).
+     */
+    public CursorPage<MessageDTO> getConversation(Long userId1, Long userId2, String before, String after, int limit) {
+        limit = limit <= 0 ? 50 : Math.min(limit, 100);
+        // Fetch one extra row to know whether another page exists
+        Pageable page = PageRequest.of(0, limit + 1);
+        String conversationKey = Message.conversationKey(userId1, userId2);
+
+        List<MessageDTO> messages;
+        if (before != null) {
+            KeysetCursor cursor = KeysetCursor.decode(before);
+            messages = messageRepository.findInConversationBefore(
+                    conversationKey, cursor.getCreatedAt(), cursor.getId(), page);
+        } else if (after != null) {
+            KeysetCursor cursor = KeysetCursor.decode(after);
+            messages = messageRepository.findInConversationAfter(
+                    conversationKey, cursor.getCreatedAt(), cursor.getId(), page);
+        } else {
+            messages = messageRepository.findLatestInConversation(conversationKey, page);
+        }
+
+        boolean hasMore = messages.size() > limit;
+        if (hasMore) {
+            messages = messages.subList(0, limit);
+        }
+        applyReadState(messages, userId1, userId2);
+
+        if (!hasMore) {
+            return new CursorPage<>(messages, null);
+        }
+        MessageDTO last = messages.get(limit - 1);
+        return new CursorPage<>(messages, new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
     }
 
     public List<MessageDTO> getUnreadMessages(Long userId) {
-        return messageRepository.findUnreadMessages(userId)
-                .stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return messageRepository.findUnreadMessages(userId);
+    }
+
+    public UnreadCountsDTO getUnreadCounts(Long userId) {
+        return unreadCounterService.getCounts(userId);
+    }
+
+    /**
+     * Marks everything the user received from {@code otherUserId} up to {@code upToMessageId}
+     * (or up to the latest message when null) as read, as one set-based upsert.
+     */
+    @Transactional
+    public void markConversationRead(Long userId, Long otherUserId, Long upToMessageId) {
+        readWatermarkRepository.advanceInConversation(
+                userId,
+                Message.conversationKey(userId, otherUserId),
+                upToMessageId != null ? upToMessageId : Long.MAX_VALUE);
+        unreadCounterService.refresh(userId);
     }
 
-    public void markAsRead(Long messageId) {
-        Optional<Message> msgOpt = messageRepository.findById(messageId);
-        if (msgOpt.isPresent()) {
-            Message message = msgOpt.get();
-            message.setIsRead(true);
-            messageRepository.save(message);
+    @Transactional
+    public void markAsRead(Long userId, Long messageId) {
+        if (readWatermarkRepository.advanceToMessage(userId, messageId) > 0) {
+            unreadCounterService.refresh(userId);
         }
     }
 
-    private MessageDTO mapToDTO(Message message) {
+    private void applyReadState(List<MessageDTO> messages, Long userId1, Long userId2) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        long readBy1 = 0;
+        long readBy2 = 0;
+        for (ReadWatermark watermark : readWatermarkRepository.findForConversation(userId1, userId2)) {
+            if (watermark.getUserId().equals(userId1)) {
+                readBy1 = watermark.getLastReadMessageId();
+            } else {
+                readBy2 = watermark.getLastReadMessageId();
+            }
+        }
+        for (MessageDTO message : messages) {
+            long watermark = message.getReceiverId().equals(userId1) ? readBy1 : readBy2;
+            message.setIsRead(message.getId() <= watermark);
+        }
+    }
+
+    MessageDTO mapToDTO(Message message) {
         return MessageDTO.builder()
                 .id(message.getId())
                 .senderId(message.getSender().getId())
                 .senderName(message.getSender().getDisplayName())
                 .receiverId(message.getReceiver().getId())
                 .content(message.getContent())
-                .isRead(message.getIsRead())
+                .isRead(false)
                 .createdAt(message.getCreatedAt())
                 .build();
     }
@@ -0,0 +1,12 @@
+package com.textonly.backend.service;
+
+import lombok.Value;
+
+/**
+ * Published by {@link PresenceService} whenever a user's status changes.
+ */
+@Value
+public class PresenceChangedEvent {
+    Long userId;
+    String status;
+}
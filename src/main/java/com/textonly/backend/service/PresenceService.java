@@ -0,0 +1,178 @@
+package com.textonly.backend.service;
+
+import com.textonly.backend.auth.JwtPrincipal;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Online/away/busy/offline status of every user, kept in memory and written behind to
+ * {@code users.status} in periodic batches (only the latest status of each user is written).
+ * A user is online while they have at least one STOMP session; dead connections are dropped
+ * by the broker's heartbeats and SockJS timeouts, which ends the session. Away and busy are
+ * chosen by the user and restored on their next connection.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PresenceService {
+
+    public static final String ONLINE = "online";
+    public static final String AWAY = "away";
+    public static final String BUSY = "busy";
+    public static final String OFFLINE = "offline";
+
+    private static final Set<String> STATUSES = Set.of(ONLINE, AWAY, BUSY, OFFLINE);
+
+    private static final String UPDATE_SQL = "UPDATE users SET status = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, Presence> presences = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyUsers = ConcurrentHashMap.newKeySet();
+
+    public String getStatus(Long userId) {
+        Presence presence = presences.get(userId);
+        return presence != null ? presence.status : OFFLINE;
+    }
+
+    public void login(Long userId) {
+        update(userId, presence -> presence.status = presence.preferred);
+    }
+
+    public void logout(Long userId) {
+        update(userId, presence -> presence.status = OFFLINE);
+    }
+
+    public void setStatus(Long userId, String status) {
+        if (status == null || !STATUSES.contains(status)) {
+            throw new RuntimeException("Invalid status: " + status);
+        }
+        update(userId, presence -> {
+            if (!OFFLINE.equals(status)) {
+                presence.preferred = status;
+            }
+            presence.status = status;
+        });
+    }
+
+    @EventListener
+    public void onSessionConnected(SessionConnectedEvent event) {
+        Long userId = userId(event.getUser());
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (userId != null && sessionId != null) {
+            update(userId, presence -> {
+                presence.sessions.add(sessionId);
+                if (OFFLINE.equals(presence.status)) {
+                    presence.status = presence.preferred;
+                }
+            });
+        }
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        Long userId = userId(event.getUser());
+        if (userId != null) {
+            // Disconnect can be reported more than once per session; only the first one counts
+            update(userId, presence -> {
+                if (presence.sessions.remove(event.getSessionId()) && presence.sessions.isEmpty()) {
+                    presence.status = OFFLINE;
+                }
+            });
+        }
+    }
+
+    /**
+     * Nobody is connected to a freshly started instance, so statuses left behind by the
+     * previous one are stale.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resetAfterRestart() {
+        int reset = jdbcTemplate.update("UPDATE users SET status = ? WHERE status <> ?", OFFLINE, OFFLINE);
+        if (reset > 0) {
+            log.info("Marked {} users offline after restart", reset);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${presence.flush-interval-ms:2000}")
+    public void flush() {
+        if (dirtyUsers.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        for (Long userId : dirtyUsers) {
+            // Remove before reading so a concurrent change marks the user dirty again
+            dirtyUsers.remove(userId);
+            rows.add(new Object[]{getStatus(userId), userId});
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+        } catch (RuntimeException e) {
+            // Keep the users dirty so the next run retries them
+            rows.forEach(row -> dirtyUsers.add((Long) row[1]));
+            log.warn("Failed to flush {} presence updates", rows.size(), e);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void update(Long userId, Consumer<Presence> change) {
+        String[] changedTo = new String[1];
+        presences.compute(userId, (id, presence) -> {
+            Presence current = presence != null ? presence : new Presence();
+            String before = current.status;
+            change.accept(current);
+            if (!before.equals(current.status)) {
+                dirtyUsers.add(id);
+                changedTo[0] = current.status;
+            }
+            return current;
+        });
+        if (changedTo[0] != null) {
+            eventPublisher.publishEvent(new PresenceChangedEvent(userId, changedTo[0]));
+        }
+    }
+
+    private static Long userId(Principal user) {
+        if (user instanceof UsernamePasswordAuthenticationToken authentication
+                && authentication.getPrincipal() instanceof JwtPrincipal principal) {
+            return principal.getUserId();
+        }
+        return null;
+    }
+
+    /**
+     * Mutated only inside {@code presences.compute}, read without locking.
+     */
+    private static class Presence {
+        private volatile String status = OFFLINE;
+        private String preferred = ONLINE;
+        private final Set<String> sessions = new HashSet<>();
+    }
+}
@@ -0,0 +1,15 @@
+package com.textonly.backend.service;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Published by {@link ServerService#deleteServer} so caches can drop the server's channels
+ * once the delete has committed.
+ */
+@Value
+public class ServerDeletedEvent {
+    Long serverId;
+    List<Long> channelIds;
+}
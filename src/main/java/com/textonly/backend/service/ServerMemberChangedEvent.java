@@ -0,0 +1,14 @@
+package com.textonly.backend.service;
+
+import lombok.Value;
+
+/**
+ * A user joined ({@code member = true}) or left a server. Published inside the membership
+ * transaction; listeners run after commit.
+ */
+@Value
+public class ServerMemberChangedEvent {
+    Long serverId;
+    Long userId;
+    boolean member;
+}
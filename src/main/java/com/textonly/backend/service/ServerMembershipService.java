@@ -0,0 +1,153 @@
+package com.textonly.backend.service;
+
+import com.textonly.backend.repository.ChannelRepository;
+import com.textonly.backend.repository.ServerMemberRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers "may this user use this channel" from memory. Each server's member ids are kept
+ * as a sorted {@code long[]} snapshot (8 bytes per member, binary search, no boxing) and
+ * channel ids are mapped to their server once. Snapshots are replaced copy-on-write when
+ * membership changes commit, so checks never lock or query. Beyond
+ * {@code membership.cache.max-servers} the least recently checked server is evicted.
+ */
+@Service
+@RequiredArgsConstructor
+public class ServerMembershipService {
+
+    private static final long[] NO_MEMBERS = new long[0];
+
+    private final ServerMemberRepository serverMemberRepository;
+    private final ChannelRepository channelRepository;
+
+    @Value("${membership.cache.max-servers:10000}")
+    private int maxServers;
+
+    private final Map<Long, Members> membersByServer = new ConcurrentHashMap<>();
+    private final Map<Long, Long> serverByChannel = new ConcurrentHashMap<>();
+
+    // Bumped on every committed change; a load that overlaps a change is not cached
+    private final AtomicLong changeCount = new AtomicLong();
+
+    public boolean isMember(Long serverId, Long userId) {
+        Members members = membersByServer.get(serverId);
+        if (members == null) {
+            members = load(serverId);
+        } else {
+            members.lastUsed = System.nanoTime();
+        }
+        return Arrays.binarySearch(members.ids, userId) >= 0;
+    }
+
+    public boolean isChannelMember(Long channelId, Long userId) {
+        Long serverId = serverByChannel.get(channelId);
+        if (serverId == null) {
+            Optional<Long> found = channelRepository.findServerIdById(channelId);
+            if (found.isEmpty()) {
+                return false;
+            }
+            serverId = found.get();
+            // A channel never moves to another server, so this mapping only goes away with the server
+            serverByChannel.put(channelId, serverId);
+        }
+        return isMember(serverId, userId);
+    }
+
+    public void requireChannelMember(Long channelId, Long userId) {
+        if (!isChannelMember(channelId, userId)) {
+            throw new AccessDeniedException("Not a member of this channel's server");
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberChanged(ServerMemberChangedEvent event) {
+        changeCount.incrementAndGet();
+        long userId = event.getUserId();
+        membersByServer.computeIfPresent(event.getServerId(), (serverId, members) -> new Members(
+                event.isMember() ? with(members.ids, userId) : without(members.ids, userId), members.lastUsed));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onServerDeleted(ServerDeletedEvent event) {
+        changeCount.incrementAndGet();
+        membersByServer.remove(event.getServerId());
+        event.getChannelIds().forEach(serverByChannel::remove);
+    }
+
+    private Members load(Long serverId) {
+        long stamp = changeCount.get();
+        List<Long> userIds = serverMemberRepository.findUserIds(serverId);
+        Members loaded = new Members(
+                userIds.isEmpty() ? NO_MEMBERS : userIds.stream().mapToLong(Long::longValue).sorted().toArray(),
+                System.nanoTime());
+
+        if (membersByServer.size() >= maxServers) {
+            evictLeastRecentlyUsed();
+        }
+        // Events bump changeCount before touching the map, and compute is atomic per key with their
+        // computeIfPresent/remove: either the change sees this entry and updates it, or this sees the
+        // bumped count and leaves the server uncached
+        Members installed = membersByServer.compute(serverId,
+                (id, current) -> current != null ? current : changeCount.get() == stamp ? loaded : null);
+        return installed != null ? installed : loaded;
+    }
+
+    // Misses are rare and already pay for a query, so a scan is cheaper than ordering every check
+    private void evictLeastRecentlyUsed() {
+        Map.Entry<Long, Members> eldest = null;
+        for (Map.Entry<Long, Members> entry : membersByServer.entrySet()) {
+            if (eldest == null || entry.getValue().lastUsed - eldest.getValue().lastUsed < 0) {
+                eldest = entry;
+            }
+        }
+        if (eldest != null) {
+            membersByServer.remove(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private static long[] with(long[] members, long userId) {
+        int index = Arrays.binarySearch(members, userId);
+        if (index >= 0) {
+            return members;
+        }
+        int insertAt = -index - 1;
+        long[] copy = new long[members.length + 1];
+        System.arraycopy(members, 0, copy, 0, insertAt);
+        copy[insertAt] = userId;
+        System.arraycopy(members, insertAt, copy, insertAt + 1, members.length - insertAt);
+        return copy;
+    }
+
+    private static long[] without(long[] members, long userId) {
+        int index = Arrays.binarySearch(members, userId);
+        if (index < 0) {
+            return members;
+        }
+        long[] copy = new long[members.length - 1];
+        System.arraycopy(members, 0, copy, 0, index);
+        System.arraycopy(members, index + 1, copy, index, members.length - index - 1);
+        return copy;
+    }
+
+    private static final class Members {
+
+        private final long[] ids; // sorted
+        private volatile long lastUsed; // System.nanoTime() of the latest check
+
+        Members(long[] ids, long lastUsed) {
+            this.ids = ids;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
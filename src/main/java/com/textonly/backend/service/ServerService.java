@@ -1,22 +1,36 @@
 package com.textonly.backend.service;
 
+import com.textonly.backend.dto.ChannelSummaryDTO;
+import com.textonly.backend.dto.ServerOverviewDTO;
+import com.textonly.backend.model.Channel;
 import com.textonly.backend.model.Server;
 import com.textonly.backend.model.User;
+import com.textonly.backend.repository.ChannelMessageRepository;
+import com.textonly.backend.repository.ChannelRepository;
+import com.textonly.backend.repository.ServerMemberRepository;
 import com.textonly.backend.repository.ServerRepository;
 import com.textonly.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ServerService {
 
     private final ServerRepository serverRepository;
+    private final ServerMemberRepository serverMemberRepository;
+    private final ChannelRepository channelRepository;
+    private final ChannelMessageRepository channelMessageRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Server createServer(String name, String description, String imageUrl, Long ownerId) {
@@ -26,17 +40,37 @@ public class ServerService {
         Server server = Server.builder()
                 .name(name)
                 .description(description)
-                .imageUrl(imageUrl)
+                .iconUrl(imageUrl)
                 .owner(owner)
-                .isPublic(true)
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        return serverRepository.save(server);
+        Server saved = serverRepository.save(server);
+        // The owner is a member of their own server
+        serverMemberRepository.addMember(saved.getId(), ownerId);
+        eventPublisher.publishEvent(new ServerMemberChangedEvent(saved.getId(), ownerId, true));
+        return saved;
     }
 
     public List<Server> getUserServers(Long userId) {
-        return serverRepository.findByMembersId(userId);
+        return serverRepository.findByMemberId(userId);
+    }
+
+    /**
+     * Servers of the user with their channels, in two queries regardless of the server count.
+     */
+    @Transactional(readOnly = true)
+    public List<ServerOverviewDTO> getUserServerOverview(Long userId) {
+        List<ServerOverviewDTO> servers = serverRepository.findOverviewByMemberId(userId);
+        if (servers.isEmpty()) {
+            return servers;
+        }
+        Map<Long, ServerOverviewDTO> byId = servers.stream()
+                .collect(Collectors.toMap(ServerOverviewDTO::getId, Function.identity()));
+        for (ChannelSummaryDTO channel : channelRepository.findSummariesByServerIds(byId.keySet())) {
+            byId.get(channel.getServerId()).getChannels().add(channel);
+        }
+        return servers;
     }
 
     public Server getServerById(Long serverId) {
@@ -50,19 +84,27 @@ public class ServerService {
         if (!server.getOwner().getId().equals(userId)) {
             throw new RuntimeException("Only server owner can delete the server");
         }
+        List<Long> channelIds = server.getChannels().stream().map(Channel::getId).toList();
+        // Channels cascade from the server, their messages don't
+        if (!channelIds.isEmpty()) {
+            channelMessageRepository.deleteByChannelIds(channelIds);
+        }
+        serverMemberRepository.deleteByServer(serverId);
         serverRepository.delete(server);
+        eventPublisher.publishEvent(new ServerDeletedEvent(serverId, channelIds));
     }
 
     @Transactional
     public void addMember(Long serverId, Long userId) {
-        Server server = getServerById(serverId);
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (!server.getMembers().contains(user)) {
-            server.getMembers().add(user);
-            serverRepository.save(server);
+        if (!serverRepository.existsById(serverId)) {
+            throw new RuntimeException("Server not found");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
         }
+        // Single-row insert; a repeated join is a no-op
+        serverMemberRepository.addMember(serverId, userId);
+        eventPublisher.publishEvent(new ServerMemberChangedEvent(serverId, userId, true));
     }
 
     @Transactional
@@ -74,10 +116,7 @@ public class ServerService {
             throw new RuntimeException("Unauthorized to remove member");
         }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        server.getMembers().remove(user);
-        serverRepository.save(server);
+        serverMemberRepository.removeMember(serverId, userId);
+        eventPublisher.publishEvent(new ServerMemberChangedEvent(serverId, userId, false));
     }
 }
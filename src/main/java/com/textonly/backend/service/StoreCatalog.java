@@ -0,0 +1,110 @@
+package com.textonly.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.textonly.backend.model.StoreItem;
+import com.textonly.backend.repository.StoreItemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * The store catalog, served from memory. Items only change through the database, so the
+ * catalog is reloaded on a schedule into an immutable snapshot holding every storefront view
+ * (all items or one type, optionally only the available ones) already serialized to JSON,
+ * each with a strong ETag derived from its bytes. Requests never touch the database or
+ * Jackson, and the same catalog yields the same ETags on every instance.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StoreCatalog {
+
+    private final StoreItemRepository storeItemRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    public record View(byte[] json, String etag) {
+    }
+
+    private record Snapshot(View all, View available,
+                            Map<StoreItem.ItemType, View> byType,
+                            Map<StoreItem.ItemType, View> availableByType) {
+    }
+
+    /**
+     * Items of {@code type} (all types when null), in id order, optionally only the available ones.
+     */
+    public View view(StoreItem.ItemType type, boolean availableOnly) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            current = firstSnapshot();
+        }
+        if (type == null) {
+            return availableOnly ? current.available() : current.all();
+        }
+        return (availableOnly ? current.availableByType() : current.byType()).get(type);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${store.catalog.refresh-interval-ms:60000}",
+               initialDelayString = "${store.catalog.refresh-interval-ms:60000}")
+    public void refresh() {
+        load();
+    }
+
+    // A request that arrives before the first load waits for it instead of seeing an empty store
+    private synchronized Snapshot firstSnapshot() {
+        return snapshot != null ? snapshot : load();
+    }
+
+    private synchronized Snapshot load() {
+        List<StoreItem> items = storeItemRepository.findAll(Sort.by("id"));
+        Predicate<StoreItem> available = item -> !Boolean.FALSE.equals(item.getIsAvailable());
+
+        Map<StoreItem.ItemType, View> byType = new EnumMap<>(StoreItem.ItemType.class);
+        Map<StoreItem.ItemType, View> availableByType = new EnumMap<>(StoreItem.ItemType.class);
+        for (StoreItem.ItemType type : StoreItem.ItemType.values()) {
+            List<StoreItem> ofType = items.stream().filter(item -> item.getType() == type).toList();
+            byType.put(type, render(ofType));
+            availableByType.put(type, render(ofType.stream().filter(available).toList()));
+        }
+        Snapshot built = new Snapshot(
+                render(items),
+                render(items.stream().filter(available).toList()),
+                byType,
+                availableByType);
+
+        Snapshot previous = snapshot;
+        if (previous == null || !previous.all().etag().equals(built.all().etag())) {
+            log.info("Store catalog loaded: {} items, ETag {}", items.size(), built.all().etag());
+        }
+        snapshot = built;
+        return built;
+    }
+
+    private View render(List<StoreItem> items) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(items);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            String etag = "\"" + HexFormat.of().formatHex(Arrays.copyOf(digest, 16)) + "\"";
+            return new View(json, etag);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not serialize store catalog", e);
+        }
+    }
+}
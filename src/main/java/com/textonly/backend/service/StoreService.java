@@ -2,20 +2,17 @@ package com.textonly.backend.service;
 
 import com.textonly.backend.model.StoreItem;
 import com.textonly.backend.model.Transaction;
-import com.textonly.backend.model.User;
 import com.textonly.backend.model.UserInventory;
-import com.textonly.backend.model.UserWallet;
 import com.textonly.backend.repository.StoreItemRepository;
-import com.textonly.backend.repository.TransactionRepository;
 import com.textonly.backend.repository.UserInventoryRepository;
 import com.textonly.backend.repository.UserRepository;
-import com.textonly.backend.repository.UserWalletRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -23,65 +20,41 @@ public class StoreService {
 
     private final StoreItemRepository storeItemRepository;
     private final UserInventoryRepository userInventoryRepository;
-    private final UserWalletRepository userWalletRepository;
+    private final WalletService walletService;
+    private final StoreCatalog storeCatalog;
     private final UserRepository userRepository;
-    private final TransactionRepository transactionRepository;
 
-    public List<StoreItem> getStoreItems(String itemType) {
+    /**
+     * Pre-serialized catalog view for the storefront; empty when {@code itemType} names no type.
+     */
+    public Optional<StoreCatalog.View> getStoreItems(String itemType, boolean availableOnly) {
+        StoreItem.ItemType type = null;
         if (itemType != null && !itemType.isEmpty()) {
             try {
-                StoreItem.ItemType type = StoreItem.ItemType.valueOf(itemType.toUpperCase());
-                return storeItemRepository.findByItemType(type);
+                type = StoreItem.ItemType.valueOf(itemType.toUpperCase());
             } catch (IllegalArgumentException e) {
-                return storeItemRepository.findAll();
+                return Optional.empty();
             }
         }
-        return storeItemRepository.findAll();
+        return Optional.of(storeCatalog.view(type, availableOnly));
     }
 
     @Transactional
     public UserInventory purchaseItem(Long userId, Long itemId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
         StoreItem item = storeItemRepository.findById(itemId)
                 .orElseThrow(() -> new RuntimeException("Item not found"));
 
-        UserWallet wallet = userWalletRepository.findByUserId(userId)
-                .orElseGet(() -> {
-                    UserWallet newWallet = UserWallet.builder()
-                            .user(user)
-                            .coins(0)
-                            .totalSpent(0)
-                            .totalEarned(0)
-                            .build();
-                    return userWalletRepository.save(newWallet);
-                });
-
-        if (wallet.getCoins() < item.getPrice()) {
+        // Deduct coins and record the ledger entry; the balance check is part of the same statement
+        if (!walletService.debit(userId, item.getPrice(),
+                Transaction.TransactionType.PURCHASE, "Purchased " + item.getName())) {
             throw new RuntimeException("Insufficient coins");
         }
 
-        // Deduct coins
-        wallet.setCoins(wallet.getCoins() - item.getPrice());
-        wallet.setTotalSpent(wallet.getTotalSpent() + item.getPrice());
-        userWalletRepository.save(wallet);
-
-        // Create transaction record
-        Transaction transaction = Transaction.builder()
-                .user(user)
-                .transactionType(Transaction.TransactionType.PURCHASE)
-                .amount(item.getPrice())
-                .description("Purchased " + item.getName())
-                .timestamp(LocalDateTime.now())
-                .build();
-        transactionRepository.save(transaction);
-
         // Add to inventory
         UserInventory inventory = UserInventory.builder()
-                .user(user)
-                .storeItem(item)
-                .purchaseDate(LocalDateTime.now())
+                .user(userRepository.getReferenceById(userId))
+                .item(item)
+                .purchasedAt(LocalDateTime.now())
                 .build();
 
         return userInventoryRepository.save(inventory);
@@ -0,0 +1,256 @@
+package com.textonly.backend.service;
+
+import com.textonly.backend.dto.MessageDTO;
+import com.textonly.backend.dto.UnreadCountsDTO;
+import com.textonly.backend.model.UnreadCounter;
+import com.textonly.backend.repository.MessageRepository;
+import com.textonly.backend.repository.UnreadCounterRepository;
+import com.textonly.backend.websocket.DirectMessageSentEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-user unread badge counters, served from memory and written behind to
+ * {@code unread_counters} in periodic batches. A user's counters are loaded from the
+ * table on first access, bumped once a new DM has committed and recomputed from the
+ * read watermarks whenever the user marks something as read. Beyond
+ * {@code unread.cache.max-users} the least recently used users whose counters are
+ * already flushed are dropped; they are reloaded from the table when needed again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UnreadCounterService {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO unread_counters (id, user_id, peer_id, unread_count, updated_at) " +
+            "VALUES (nextval('unread_counters_seq'), ?, ?, ?, now()) " +
+            "ON CONFLICT (user_id, peer_id) DO UPDATE SET " +
+            "unread_count = EXCLUDED.unread_count, updated_at = EXCLUDED.updated_at";
+
+    private final UnreadCounterRepository unreadCounterRepository;
+    private final MessageRepository messageRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${unread.cache.max-users:10000}")
+    private int maxUsers;
+
+    private final Map<Long, UserCounters> counters = new ConcurrentHashMap<>();
+    // Marked while holding the user's UserCounters lock, so eviction can't miss a pending write
+    private final Set<Long> dirtyUsers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Counts the DM for its receiver once the sending transaction has committed. Until then the
+     * receiver's counters are marked as having a delivery in flight, so a concurrent
+     * {@link #refresh} can't install counts that miss the row and then have the increment land
+     * on top of counts that already include it.
+     */
+    @EventListener
+    public void onDirectMessageSent(DirectMessageSentEvent event) {
+        MessageDTO message = event.getMessage();
+        Long userId = message.getReceiverId();
+        Long peerId = message.getSenderId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(userId, peerId);
+            return;
+        }
+
+        UserCounters userCounters = pin(userId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (userCounters) {
+                    userCounters.inFlight--;
+                    // Unknown outcome counted as stored: a badge one too high beats a lost one
+                    if (status != STATUS_ROLLED_BACK) {
+                        add(userId, userCounters, peerId);
+                    }
+                }
+            }
+        });
+    }
+
+    private void increment(Long userId, Long peerId) {
+        while (true) {
+            UserCounters userCounters = countersFor(userId);
+            synchronized (userCounters) {
+                if (userCounters.evicted) {
+                    continue; // dropped after we looked it up; load a fresh copy
+                }
+                add(userId, userCounters, peerId);
+                return;
+            }
+        }
+    }
+
+    // Caller holds the userCounters lock
+    private void add(Long userId, UserCounters userCounters, Long peerId) {
+        userCounters.byPeer.computeIfAbsent(peerId, id -> new AtomicInteger()).incrementAndGet();
+        userCounters.version++;
+        dirtyUsers.add(userId);
+    }
+
+    // Marks a delivery in flight; the entry isn't evicted until the matching afterCompletion
+    private UserCounters pin(Long userId) {
+        while (true) {
+            UserCounters userCounters = countersFor(userId);
+            synchronized (userCounters) {
+                if (!userCounters.evicted) {
+                    userCounters.inFlight++;
+                    return userCounters;
+                }
+            }
+        }
+    }
+
+    /**
+     * Re-derives the user's counters from the read watermarks. Called after a read, so the
+     * badge reflects exactly what is still above the watermark. If a message arrives while
+     * the counts are being queried, they may not include it; the query is then repeated
+     * rather than overwriting the increment.
+     */
+    public void refresh(Long userId) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            UserCounters userCounters = countersFor(userId);
+            long version;
+            synchronized (userCounters) {
+                version = userCounters.version;
+            }
+
+            Map<Long, Integer> unread = new HashMap<>();
+            for (Object[] row : messageRepository.countUnreadBySender(userId)) {
+                unread.put((Long) row[0], ((Number) row[1]).intValue());
+            }
+
+            synchronized (userCounters) {
+                // A DM still being stored may or may not be in the counts just read
+                if (userCounters.evicted || userCounters.version != version || userCounters.inFlight > 0) {
+                    continue;
+                }
+                userCounters.byPeer.forEach((peerId, count) -> count.set(unread.getOrDefault(peerId, 0)));
+                unread.forEach((peerId, count) ->
+                        userCounters.byPeer.computeIfAbsent(peerId, id -> new AtomicInteger()).set(count));
+                dirtyUsers.add(userId);
+                return;
+            }
+        }
+        // Still receiving messages; the counters only ever over-count until the next read
+        log.debug("Unread counters of user {} not refreshed: kept changing", userId);
+    }
+
+    public UnreadCountsDTO getCounts(Long userId) {
+        Map<Long, Integer> bySender = new HashMap<>();
+        int total = 0;
+        for (Map.Entry<Long, AtomicInteger> entry : countersFor(userId).byPeer.entrySet()) {
+            int count = entry.getValue().get();
+            if (count > 0) {
+                bySender.put(entry.getKey(), count);
+                total += count;
+            }
+        }
+        return UnreadCountsDTO.builder()
+                .total(total)
+                .bySender(bySender)
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${unread.flush-interval-ms:2000}")
+    public synchronized void flush() {
+        if (!dirtyUsers.isEmpty()) {
+            writeDirty();
+        }
+        // Same thread as the write, so a user can't be dropped between losing its dirty mark and being written
+        evictIdle();
+    }
+
+    private void writeDirty() {
+        List<Object[]> rows = new ArrayList<>();
+        for (Long userId : dirtyUsers) {
+            // Remove before snapshotting so concurrent increments mark the user dirty again
+            dirtyUsers.remove(userId);
+            UserCounters userCounters = counters.get(userId);
+            if (userCounters != null) {
+                userCounters.byPeer.forEach((peerId, count) ->
+                        rows.add(new Object[]{userId, peerId, count.get()}));
+            }
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        } catch (RuntimeException e) {
+            // Keep the rows dirty so the next run retries them
+            rows.forEach(row -> dirtyUsers.add((Long) row[0]));
+            log.warn("Failed to flush {} unread counters", rows.size(), e);
+        }
+    }
+
+    private void evictIdle() {
+        int excess = counters.size() - maxUsers;
+        if (excess <= 0) {
+            return;
+        }
+        List<Map.Entry<Long, UserCounters>> eldestFirst = new ArrayList<>(counters.entrySet());
+        eldestFirst.sort(Comparator.comparingLong(entry -> entry.getValue().lastUsed));
+        for (Map.Entry<Long, UserCounters> entry : eldestFirst) {
+            if (excess <= 0) {
+                break;
+            }
+            UserCounters userCounters = entry.getValue();
+            synchronized (userCounters) {
+                // Unflushed counts exist only here; the table has everything else
+                if (!dirtyUsers.contains(entry.getKey()) && userCounters.inFlight == 0) {
+                    userCounters.evicted = true;
+                    counters.remove(entry.getKey(), userCounters);
+                    excess--;
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    synchronized void flushOnShutdown() {
+        writeDirty();
+    }
+
+    private UserCounters countersFor(Long userId) {
+        UserCounters loaded = counters.get(userId);
+        if (loaded != null) {
+            loaded.lastUsed = System.nanoTime();
+            return loaded;
+        }
+
+        // Load outside the map lock; if another thread wins the race, use its copy
+        UserCounters fromTable = new UserCounters();
+        for (UnreadCounter counter : unreadCounterRepository.findByUserId(userId)) {
+            fromTable.byPeer.put(counter.getPeerId(), new AtomicInteger(counter.getUnreadCount()));
+        }
+        UserCounters existing = counters.putIfAbsent(userId, fromTable);
+        return existing != null ? existing : fromTable;
+    }
+
+    private static final class UserCounters {
+
+        private final Map<Long, AtomicInteger> byPeer = new ConcurrentHashMap<>(); // peerId -> unread count
+        private volatile long lastUsed = System.nanoTime();
+        private long version; // bumped by every increment; guarded by this
+        private int inFlight; // DMs to this user whose transaction hasn't completed; guarded by this
+        private boolean evicted; // guarded by this
+    }
+}
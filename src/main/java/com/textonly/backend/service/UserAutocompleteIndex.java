@@ -0,0 +1,254 @@
+package com.textonly.backend.service;
+
+import com.textonly.backend.dto.UserCompletionDTO;
+import com.textonly.backend.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongPredicate;
+import java.util.regex.Pattern;
+
+/**
+ * Display-name completions for active users, answered from memory. Names are normalized
+ * (accents stripped, lower-cased) and kept in parallel arrays sorted by (name, id), so a
+ * prefix lookup is one binary search plus a scan of the matches it returns. The arrays are
+ * built at startup and replaced copy-on-write when a user registers or renames; readers
+ * never lock.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserAutocompleteIndex {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    private volatile Snapshot snapshot = new Snapshot(new String[0], new String[0], new long[0]);
+
+    // Changes committed while a rebuild is loading, replayed onto its result. Guarded by this.
+    private List<UserDisplayNameChangedEvent> changesDuringRebuild;
+
+    private Timer rebuildTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        rebuildTimer = Timer.builder("user.autocomplete.rebuild").register(meterRegistry);
+        Gauge.builder("user.autocomplete.entries", this, index -> index.snapshot.ids.length)
+                .register(meterRegistry);
+        Gauge.builder("user.autocomplete.memory", this, index -> index.snapshot.estimatedBytes())
+                .baseUnit("bytes").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            changesDuringRebuild = new ArrayList<>();
+        }
+        try {
+            List<Object[]> rows = userRepository.findActiveDisplayNames();
+            List<Entry> entries = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                String name = (String) row[1];
+                if (name != null) {
+                    entries.add(new Entry(normalize(name), name, (Long) row[0]));
+                }
+            }
+            entries.sort(Comparator.comparing(Entry::key).thenComparingLong(Entry::id));
+
+            Snapshot built = new Snapshot(
+                    entries.stream().map(Entry::key).toArray(String[]::new),
+                    entries.stream().map(Entry::name).toArray(String[]::new),
+                    entries.stream().mapToLong(Entry::id).toArray());
+            synchronized (this) {
+                for (UserDisplayNameChangedEvent change : changesDuringRebuild) {
+                    built = built.apply(change);
+                }
+                snapshot = built;
+            }
+        } finally {
+            synchronized (this) {
+                changesDuringRebuild = null;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("User autocomplete index rebuilt: {} names in {} ms", snapshot.ids.length, elapsed / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDisplayNameChanged(UserDisplayNameChangedEvent event) {
+        snapshot = snapshot.apply(event);
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(event);
+        }
+    }
+
+    /**
+     * Up to {@code limit} users whose normalized display name starts with the normalized
+     * prefix, in name order, skipping those {@code exclude} matches.
+     */
+    public List<UserCompletionDTO> complete(String prefix, int limit, LongPredicate exclude) {
+        String key = normalize(prefix);
+        Snapshot current = snapshot;
+        List<UserCompletionDTO> results = new ArrayList<>(Math.min(limit, 16));
+        if (key.isEmpty()) {
+            return results;
+        }
+        for (int i = current.lowerBound(key, Long.MIN_VALUE);
+             i < current.keys.length && results.size() < limit && current.keys[i].startsWith(key); i++) {
+            if (!exclude.test(current.ids[i])) {
+                results.add(new UserCompletionDTO(current.ids[i], current.names[i], false));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Whether the user is indexed under this normalized name: active, and the name is current.
+     */
+    public boolean contains(String key, long userId) {
+        Snapshot current = snapshot;
+        int at = current.lowerBound(key, userId);
+        return at < current.ids.length && current.ids[at] == userId && current.keys[at].equals(key);
+    }
+
+    public static String normalize(String displayName) {
+        String decomposed = Normalizer.normalize(displayName.trim(), Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(String key, String name, long id) {
+    }
+
+    /**
+     * Immutable (key, display name, id) arrays sorted by (key, id).
+     */
+    private static final class Snapshot {
+
+        private final String[] keys;
+        private final String[] names;
+        private final long[] ids;
+
+        Snapshot(String[] keys, String[] names, long[] ids) {
+            // Most names only differ from their key by case; share the instance when they don't
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(names[i])) {
+                    names[i] = keys[i];
+                }
+            }
+            this.keys = keys;
+            this.names = names;
+            this.ids = ids;
+        }
+
+        Snapshot apply(UserDisplayNameChangedEvent change) {
+            Snapshot result = this;
+            if (change.getOldDisplayName() != null) {
+                result = result.without(normalize(change.getOldDisplayName()), change.getUserId());
+            }
+            if (change.getNewDisplayName() != null) {
+                result = result.with(normalize(change.getNewDisplayName()), change.getNewDisplayName(), change.getUserId());
+            }
+            return result;
+        }
+
+        // First position whose (key, id) is >= the given one
+        int lowerBound(String key, long id) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = keys[mid].compareTo(key);
+                if (cmp < 0 || (cmp == 0 && ids[mid] < id)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        Snapshot with(String key, String name, long id) {
+            int at = lowerBound(key, id);
+            if (at < ids.length && ids[at] == id && keys[at].equals(key)) {
+                if (names[at].equals(name)) {
+                    return this;
+                }
+                String[] renamed = names.clone();
+                renamed[at] = name;
+                return new Snapshot(keys, renamed, ids);
+            }
+            return new Snapshot(insert(keys, at, key), insert(names, at, name), insert(ids, at, id));
+        }
+
+        Snapshot without(String key, long id) {
+            int at = lowerBound(key, id);
+            if (at >= ids.length || ids[at] != id || !keys[at].equals(key)) {
+                return this;
+            }
+            return new Snapshot(remove(keys, at), remove(names, at), remove(ids, at));
+        }
+
+        long estimatedBytes() {
+            // Three arrays plus the strings they point to (compact Latin-1 strings, 8-byte aligned)
+            long bytes = 16L * 3 + (long) ids.length * (8 + 4 + 4);
+            for (int i = 0; i < keys.length; i++) {
+                bytes += stringBytes(keys[i]);
+                if (names[i] != keys[i]) {
+                    bytes += stringBytes(names[i]);
+                }
+            }
+            return bytes;
+        }
+
+        private static long stringBytes(String value) {
+            return 24 + ((16 + value.length() + 7) & ~7L);
+        }
+
+        private static String[] insert(String[] values, int at, String value) {
+            String[] copy = new String[values.length + 1];
+            System.arraycopy(values, 0, copy, 0, at);
+            copy[at] = value;
+            System.arraycopy(values, at, copy, at + 1, values.length - at);
+            return copy;
+        }
+
+        private static long[] insert(long[] values, int at, long value) {
+            long[] copy = new long[values.length + 1];
+            System.arraycopy(values, 0, copy, 0, at);
+            copy[at] = value;
+            System.arraycopy(values, at, copy, at + 1, values.length - at);
+            return copy;
+        }
+
+        private static String[] remove(String[] values, int at) {
+            String[] copy = Arrays.copyOf(values, values.length - 1);
+            System.arraycopy(values, at + 1, copy, at, values.length - at - 1);
+            return copy;
+        }
+
+        private static long[] remove(long[] values, int at) {
+            long[] copy = Arrays.copyOf(values, values.length - 1);
+            System.arraycopy(values, at + 1, copy, at, values.length - at - 1);
+            return copy;
+        }
+    }
+}
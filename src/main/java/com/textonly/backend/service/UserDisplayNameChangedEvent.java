@@ -0,0 +1,13 @@
+package com.textonly.backend.service;
+
+import lombok.Value;
+
+/**
+ * A user registered ({@code oldDisplayName == null}) or renamed themselves.
+ */
+@Value
+public class UserDisplayNameChangedEvent {
+    Long userId;
+    String oldDisplayName;
+    String newDisplayName;
+}
@@ -0,0 +1,11 @@
+package com.textonly.backend.service;
+
+import lombok.Value;
+
+/**
+ * A user's display name or avatar changed.
+ */
+@Value
+public class UserProfileUpdatedEvent {
+    Long userId;
+}
@@ -1,22 +1,43 @@
 package com.textonly.backend.service;
 
+import com.textonly.backend.dto.CursorPage;
+import com.textonly.backend.dto.UserCompletionDTO;
 import com.textonly.backend.dto.UserProfileDTO;
+import com.textonly.backend.dto.UserSearchCursor;
 import com.textonly.backend.model.User;
 import com.textonly.backend.repository.UserRepository;
+import com.textonly.backend.repository.UserRepository.SearchRow;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class UserService {
 
+    // Below this length a substring pattern has no trigram to look up, so only prefixes match
+    private static final int MIN_SUBSTRING_QUERY = 3;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ContactListCache contactListCache;
+
+    @Autowired
+    private UserAutocompleteIndex autocompleteIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PresenceService presenceService;
+
     public UserProfileDTO getUserProfile(Long userId) {
         Optional<User> userOpt = userRepository.findById(userId);
         if (userOpt.isEmpty()) {
@@ -32,6 +53,7 @@ public class UserService {
         }
 
         User user = userOpt.get();
+        String oldDisplayName = user.getDisplayName();
         if (profileDTO.getDisplayName() != null) {
             user.setDisplayName(profileDTO.getDisplayName());
         }
@@ -41,24 +63,106 @@ public class UserService {
         user.setUpdatedAt(LocalDateTime.now());
 
         User updatedUser = userRepository.save(user);
+        if (profileDTO.getDisplayName() != null || profileDTO.getAvatarUrl() != null) {
+            eventPublisher.publishEvent(new UserProfileUpdatedEvent(userId));
+        }
+        if (profileDTO.getDisplayName() != null && !profileDTO.getDisplayName().equals(oldDisplayName)) {
+            eventPublisher.publishEvent(new UserDisplayNameChangedEvent(userId, oldDisplayName, updatedUser.getDisplayName()));
+        }
         return mapToDTO(updatedUser);
     }
 
     public void updateStatus(Long userId, String status) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            user.setStatus(status);
-            user.setUpdatedAt(LocalDateTime.now());
-            userRepository.save(user);
+        presenceService.setStatus(userId, status);
+    }
+
+    /**
+     * Active users whose display name starts with the query, then those containing it
+     * elsewhere; each group ordered by name. {@code cursor} continues a previous page.
+     */
+    public CursorPage<UserProfileDTO> searchUsers(String query, String cursor, int limit) {
+        limit = limit <= 0 ? 20 : Math.min(limit, 50);
+        String normalized = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+        String escaped = escapeLike(normalized);
+        String prefix = escaped + "%";
+
+        // Every name starting with the query sorts at or after the query itself, so the first
+        // page starts the index scan there instead of at the beginning of the index
+        UserSearchCursor position = cursor != null
+                ? UserSearchCursor.decode(cursor)
+                : new UserSearchCursor(0, normalized, 0L);
+        List<UserProfileDTO> results = new ArrayList<>(limit);
+
+        if (position.getRank() == 0) {
+            List<SearchRow> rows = userRepository.searchByPrefix(
+                    prefix, position.getSortKey(), position.getId(), limit + 1);
+            if (rows.size() > limit) {
+                return page(results, rows.subList(0, limit), 0);
+            }
+            rows.forEach(row -> results.add(mapToDTO(row)));
+            position = new UserSearchCursor(1, "", 0L);
+        }
+
+        if (normalized.length() >= MIN_SUBSTRING_QUERY) {
+            int remaining = limit - results.size();
+            List<SearchRow> rows = userRepository.searchBySubstring(
+                    "%" + escaped + "%", prefix, position.getSortKey(), position.getId(), remaining + 1);
+            if (rows.size() > remaining) {
+                if (remaining == 0) {
+                    // The page filled up exactly at the last prefix match
+                    return new CursorPage<>(results, position.encode());
+                }
+                return page(results, rows.subList(0, remaining), 1);
+            }
+            rows.forEach(row -> results.add(mapToDTO(row)));
         }
+        return new CursorPage<>(results, null);
     }
 
-    public List<UserProfileDTO> searchUsers(String displayName) {
-        return userRepository.findByDisplayNameContainingIgnoreCase(displayName)
-                .stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+    /**
+     * Completions for the "add contact" box: the user's own contacts whose name starts with
+     * the prefix come first, then everyone else from {@link UserAutocompleteIndex}. Both come
+     * from memory; contacts from the cached list also behind GET /api/contacts.
+     */
+    public List<UserCompletionDTO> autocomplete(Long userId, String prefix, int limit) {
+        limit = limit <= 0 ? 10 : Math.min(limit, 20);
+        String key = prefix == null ? "" : UserAutocompleteIndex.normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+
+        ContactListCache.ContactNames contacts = contactListCache.getContactNames(userId);
+        // Only contacts the index knows under that name: active users, as in the rest of the list
+        List<UserCompletionDTO> results = new ArrayList<>(contacts.startingWith(key, autocompleteIndex::contains));
+        if (results.size() >= limit) {
+            return results.subList(0, limit);
+        }
+        results.addAll(autocompleteIndex.complete(key, limit - results.size(),
+                id -> id == userId || contacts.contains(id)));
+        return results;
+    }
+
+    private CursorPage<UserProfileDTO> page(List<UserProfileDTO> results, List<SearchRow> rows, int rank) {
+        rows.forEach(row -> results.add(mapToDTO(row)));
+        SearchRow last = rows.get(rows.size() - 1);
+        return new CursorPage<>(results, new UserSearchCursor(rank, last.getSortKey(), last.getId()).encode());
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private UserProfileDTO mapToDTO(SearchRow row) {
+        return UserProfileDTO.builder()
+                .id(row.getId())
+                .email(row.getEmail())
+                .displayName(row.getDisplayName())
+                .avatarUrl(row.getAvatarUrl())
+                .status(presenceService.getStatus(row.getId()))
+                .build();
     }
 
     private UserProfileDTO mapToDTO(User user) {
@@ -67,7 +171,7 @@ public class UserService {
                 .email(user.getEmail())
                 .displayName(user.getDisplayName())
                 .avatarUrl(user.getAvatarUrl())
-                .status(user.getStatus())
+                .status(presenceService.getStatus(user.getId()))
                 .build();
     }
 }
@@ -1,26 +1,58 @@
 package com.textonly.backend.service;
 
+import com.textonly.backend.dto.CursorPage;
+import com.textonly.backend.dto.InvalidCursorException;
+import com.textonly.backend.dto.TransactionDTO;
 import com.textonly.backend.model.Transaction;
-import com.textonly.backend.model.User;
 import com.textonly.backend.model.UserWallet;
 import com.textonly.backend.repository.TransactionRepository;
 import com.textonly.backend.repository.UserRepository;
 import com.textonly.backend.repository.UserWalletRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Wallets are an append-only ledger ({@link Transaction}) with the {@link UserWallet} row as its head.
+ * Every change is one conditional UPDATE of the head that moves the balance and hands out the next
+ * seq, never read-modify-save, so concurrent top-ups and purchases on the same wallet cannot
+ * overwrite each other. The entry is appended in the same transaction while the head row is still
+ * locked by that UPDATE, so its seq and balance_after can't interleave with another writer's.
+ * Reading a balance is one row no matter how long the history is.
+ */
 @Service
 @RequiredArgsConstructor
 public class WalletService {
 
+    private static final String CREATE_SQL =
+            "INSERT INTO user_wallet (id, user_id, coins, total_spent, total_earned, last_seq) " +
+            "VALUES (nextval('user_wallet_seq'), ?, 0, 0, 0, 0) " +
+            "ON CONFLICT (user_id) DO NOTHING";
+
+    private static final String CREDIT_SQL =
+            "UPDATE user_wallet SET coins = coins + ?, total_earned = COALESCE(total_earned, 0) + ?, " +
+            "last_seq = last_seq + 1 WHERE user_id = ?";
+
+    private static final String DEBIT_SQL =
+            "UPDATE user_wallet SET coins = coins - ?, total_spent = COALESCE(total_spent, 0) + ?, " +
+            "last_seq = last_seq + 1 WHERE user_id = ? AND coins >= ?";
+
+    // Run right after CREDIT_SQL/DEBIT_SQL: the row is ours until commit, so this is our entry's position
+    private static final String HEAD_SQL =
+            "SELECT last_seq, coins FROM user_wallet WHERE user_id = ?";
+
     private final UserWalletRepository userWalletRepository;
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
 
+    @Transactional
     public UserWallet getUserWallet(Long userId) {
         return userWalletRepository.findByUserId(userId)
                 .orElseGet(() -> createWallet(userId));
@@ -28,47 +60,90 @@ public class WalletService {
 
     @Transactional
     public UserWallet createWallet(Long userId) {
-        User user = userRepository.findById(userId)
+        createWalletIfMissing(userId);
+        return userWalletRepository.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-
-        UserWallet wallet = UserWallet.builder()
-                .user(user)
-                .coins(0)
-                .totalSpent(0)
-                .totalEarned(0)
-                .build();
-
-        return userWalletRepository.save(wallet);
     }
 
     @Transactional
     public UserWallet addCoins(Long userId, Integer amount, String description) {
-        if (amount <= 0) {
+        if (amount == null || amount <= 0) {
             throw new RuntimeException("Amount must be positive");
         }
 
-        UserWallet wallet = getUserWallet(userId);
-        wallet.setCoins(wallet.getCoins() + amount);
-        wallet.setTotalEarned(wallet.getTotalEarned() + amount);
-        userWalletRepository.save(wallet);
+        if (jdbcTemplate.update(CREDIT_SQL, amount, amount, userId) == 0) {
+            createWalletIfMissing(userId);
+            jdbcTemplate.update(CREDIT_SQL, amount, amount, userId);
+        }
 
-        // Create transaction record
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        append(userId, Transaction.TransactionType.TOP_UP, amount,
+                description != null ? description : "Coins added");
 
-        Transaction transaction = Transaction.builder()
-                .user(user)
-                .transactionType(Transaction.TransactionType.TOP_UP)
-                .amount(amount)
-                .description(description != null ? description : "Coins added")
-                .timestamp(LocalDateTime.now())
-                .build();
-        transactionRepository.save(transaction);
+        return userWalletRepository.findByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("Wallet not found"));
+    }
 
-        return wallet;
+    /**
+     * Takes {@code amount} coins if the balance covers it, checked and applied in one statement, and
+     * records the entry. Returns false (and changes nothing) otherwise, including when the user has
+     * no wallet yet.
+     */
+    @Transactional
+    public boolean debit(Long userId, int amount, Transaction.TransactionType type, String description) {
+        if (jdbcTemplate.update(DEBIT_SQL, amount, amount, userId, amount) == 0) {
+            return false;
+        }
+        append(userId, type, amount, description);
+        return true;
+    }
+
+    /**
+     * Newest entries first. {@code before} is the cursor returned with the previous page (a seq);
+     * without it the page starts at the latest entry.
+     */
+    public CursorPage<TransactionDTO> getUserTransactions(Long userId, String before, int limit) {
+        limit = limit <= 0 ? 50 : Math.min(limit, 100);
+        long beforeSeq = Long.MAX_VALUE;
+        if (before != null) {
+            try {
+                beforeSeq = Long.parseLong(before);
+            } catch (NumberFormatException e) {
+                throw new InvalidCursorException(before);
+            }
+        }
+
+        // One extra row tells whether another page exists
+        List<TransactionDTO> entries = transactionRepository.findHistoryBefore(
+                userId, beforeSeq, PageRequest.of(0, limit + 1));
+        if (entries.size() <= limit) {
+            return new CursorPage<>(entries, null);
+        }
+        entries = entries.subList(0, limit);
+        return new CursorPage<>(entries, String.valueOf(entries.get(limit - 1).getSeq()));
+    }
+
+    // Caller has just moved the head, so the row lock makes (last_seq, coins) this entry's position
+    private void append(Long userId, Transaction.TransactionType type, int amount, String description) {
+        long[] head = jdbcTemplate.queryForObject(HEAD_SQL,
+                (rs, rowNum) -> new long[] {rs.getLong(1), rs.getLong(2)}, userId);
+
+        transactionRepository.save(Transaction.builder()
+                .user(userRepository.getReferenceById(userId))
+                .seq(head[0])
+                .type(type)
+                .amount(amount)
+                .balanceAfter((int) head[1])
+                .description(description)
+                .createdAt(LocalDateTime.now())
+                .build());
     }
 
-    public List<Transaction> getUserTransactions(Long userId) {
-        return transactionRepository.findByUserIdOrderByTimestampDesc(userId);
+    // Concurrent first requests for the same user both succeed; the unique user_id keeps one row
+    private void createWalletIfMissing(Long userId) {
+        try {
+            jdbcTemplate.update(CREATE_SQL, userId);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("User not found");
+        }
     }
 }
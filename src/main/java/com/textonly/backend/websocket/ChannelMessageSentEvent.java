@@ -0,0 +1,12 @@
+package com.textonly.backend.websocket;
+
+import com.textonly.backend.dto.ChannelMessageDTO;
+import lombok.Value;
+
+/**
+ * Published by ChannelService when a channel message is stored; pushed to clients by SyncPublisher after commit.
+ */
+@Value
+public class ChannelMessageSentEvent {
+    ChannelMessageDTO message;
+}
@@ -0,0 +1,13 @@
+package com.textonly.backend.websocket;
+
+import com.textonly.backend.dto.MessageDTO;
+import lombok.Value;
+
+/**
+ * Published by MessageService and MessageBatchWriter when a DM is stored; pushed to clients by
+ * SyncPublisher and counted as unread by UnreadCounterService after commit.
+ */
+@Value
+public class DirectMessageSentEvent {
+    MessageDTO message;
+}
@@ -0,0 +1,296 @@
+package com.textonly.backend.websocket;
+
+import com.textonly.backend.auth.JwtPrincipal;
+import com.textonly.backend.repository.ContactRepository;
+import com.textonly.backend.repository.ServerMemberRepository;
+import com.textonly.backend.service.ContactChangedEvent;
+import com.textonly.backend.service.PresenceChangedEvent;
+import com.textonly.backend.service.PresenceService;
+import com.textonly.backend.service.ServerDeletedEvent;
+import com.textonly.backend.service.ServerMemberChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.messaging.AbstractSubProtocolEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Delivers status changes on /user/queue/presence, only to connected users who have the
+ * changed user in their contacts or share a server with them.
+ *
+ * Users register interest by subscribing to the queue: their contact and server ids are
+ * loaded once, and reverse indexes (watched user -> subscribers, server -> subscribed
+ * members) are kept current from contact and membership events until their last presence
+ * subscription ends. Changes are collected and sent every {@code presence.fanout-interval-ms},
+ * so a user flapping within one interval produces at most one update, and none if they end
+ * up where they started.
+ */
+@Component
+@RequiredArgsConstructor
+public class PresencePublisher {
+
+    public static final String USER_STATUS_CHANGED = "user.status.changed";
+    public static final String PRESENCE_QUEUE = "/queue/presence";
+
+    private static final String PRESENCE_DESTINATION = "/user" + PRESENCE_QUEUE;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ContactRepository contactRepository;
+    private final ServerMemberRepository serverMemberRepository;
+
+    // Guarded by this
+    private final Map<String, Long> subscriptions = new HashMap<>(); // "sessionId/subscriptionId" -> userId
+    private final Map<Long, Subscriber> subscribers = new HashMap<>();
+    private final Map<Long, Set<Long>> contactWatchers = new HashMap<>(); // userId -> subscribers with them as a contact
+    private final Map<Long, Set<Long>> serverWatchers = new HashMap<>(); // serverId -> subscribed members
+
+    private final Map<Long, String> pending = new ConcurrentHashMap<>();
+    private final Map<Long, String> published = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        JwtPrincipal principal = principal(event);
+        if (principal == null || !PRESENCE_DESTINATION.equals(accessor.getDestination())) {
+            return;
+        }
+        Long userId = principal.getUserId();
+        Subscriber subscriber;
+        synchronized (this) {
+            subscriptions.put(accessor.getSessionId() + "/" + accessor.getSubscriptionId(), userId);
+            if (subscribers.containsKey(userId)) {
+                return;
+            }
+            subscriber = new Subscriber(principal.getName());
+            subscribers.put(userId, subscriber);
+        }
+
+        // First subscription of this user: load what they are interested in outside the lock.
+        // Contact and membership changes committed meanwhile are queued and replayed on top.
+        List<Long> contactIds;
+        List<Long> serverIds;
+        try {
+            contactIds = contactRepository.findContactIds(userId);
+            serverIds = serverMemberRepository.findServerIds(userId);
+        } catch (RuntimeException e) {
+            // Forget the half-registered subscriber (it would queue changes forever); the next subscription retries
+            synchronized (this) {
+                subscribers.remove(userId, subscriber);
+            }
+            throw e;
+        }
+        synchronized (this) {
+            if (subscribers.get(userId) != subscriber) {
+                return; // unsubscribed while loading
+            }
+            contactIds.forEach(contactId -> watchContact(userId, subscriber, contactId));
+            serverIds.forEach(serverId -> watchServer(userId, subscriber, serverId));
+            subscriber.changesDuringLoad.forEach(Runnable::run);
+            subscriber.changesDuringLoad = null;
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        unsubscribe(key -> key.equals(accessor.getSessionId() + "/" + accessor.getSubscriptionId()));
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String prefix = event.getSessionId() + "/";
+        unsubscribe(key -> key.startsWith(prefix));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onContactChanged(ContactChangedEvent event) {
+        Subscriber subscriber = subscribers.get(event.getUserId());
+        if (subscriber != null) {
+            subscriber.apply(() -> {
+                if (event.isAdded()) {
+                    watchContact(event.getUserId(), subscriber, event.getContactId());
+                } else {
+                    unwatchContact(event.getUserId(), subscriber, event.getContactId());
+                }
+            });
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onMemberChanged(ServerMemberChangedEvent event) {
+        Subscriber subscriber = subscribers.get(event.getUserId());
+        if (subscriber != null) {
+            subscriber.apply(() -> {
+                if (event.isMember()) {
+                    watchServer(event.getUserId(), subscriber, event.getServerId());
+                } else {
+                    unwatchServer(event.getUserId(), subscriber, event.getServerId());
+                }
+            });
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onServerDeleted(ServerDeletedEvent event) {
+        Set<Long> members = serverWatchers.remove(event.getServerId());
+        if (members != null) {
+            members.forEach(userId -> subscribers.get(userId).serverIds.remove(event.getServerId()));
+        }
+    }
+
+    @EventListener
+    public void onPresenceChanged(PresenceChangedEvent event) {
+        pending.put(event.getUserId(), event.getStatus());
+    }
+
+    @Scheduled(fixedDelayString = "${presence.fanout-interval-ms:1000}")
+    public void publishPending() {
+        for (Long userId : pending.keySet()) {
+            String status = pending.remove(userId);
+            String previous = published.getOrDefault(userId, PresenceService.OFFLINE);
+            if (status == null || status.equals(previous)) {
+                continue; // flapped back to what everyone already saw
+            }
+            if (PresenceService.OFFLINE.equals(status)) {
+                published.remove(userId);
+            } else {
+                published.put(userId, status);
+            }
+
+            Map<String, Object> data = new HashMap<>();
+            data.put("userId", userId);
+            data.put("status", status);
+            SyncMessage sync = SyncMessage.builder()
+                    .type(USER_STATUS_CHANGED)
+                    .senderId(userId)
+                    .data(data)
+                    .timestamp(System.currentTimeMillis())
+                    .build();
+            for (String name : audience(userId)) {
+                messagingTemplate.convertAndSendToUser(name, PRESENCE_QUEUE, sync);
+            }
+        }
+    }
+
+    private Set<String> audience(Long userId) {
+        List<Long> serverIds = null;
+        synchronized (this) {
+            Subscriber self = subscribers.get(userId);
+            if (self != null) {
+                serverIds = List.copyOf(self.serverIds);
+            }
+        }
+        if (serverIds == null) {
+            serverIds = serverMemberRepository.findServerIds(userId);
+        }
+
+        Set<String> names = new HashSet<>();
+        synchronized (this) {
+            addNames(names, contactWatchers.get(userId), userId);
+            for (Long serverId : serverIds) {
+                addNames(names, serverWatchers.get(serverId), userId);
+            }
+        }
+        return names;
+    }
+
+    private void addNames(Set<String> names, Set<Long> userIds, Long exclude) {
+        if (userIds == null) {
+            return;
+        }
+        for (Long userId : userIds) {
+            if (!userId.equals(exclude)) {
+                names.add(subscribers.get(userId).name);
+            }
+        }
+    }
+
+    private synchronized void unsubscribe(Predicate<String> matches) {
+        Set<Long> affected = new HashSet<>();
+        subscriptions.entrySet().removeIf(entry -> {
+            if (matches.test(entry.getKey())) {
+                affected.add(entry.getValue());
+                return true;
+            }
+            return false;
+        });
+        affected.removeAll(subscriptions.values());
+        for (Long userId : affected) {
+            Subscriber subscriber = subscribers.remove(userId);
+            if (subscriber != null) {
+                Set.copyOf(subscriber.contactIds).forEach(contactId -> unwatchContact(userId, subscriber, contactId));
+                Set.copyOf(subscriber.serverIds).forEach(serverId -> unwatchServer(userId, subscriber, serverId));
+            }
+        }
+    }
+
+    private void watchContact(Long userId, Subscriber subscriber, Long contactId) {
+        subscriber.contactIds.add(contactId);
+        contactWatchers.computeIfAbsent(contactId, id -> new HashSet<>()).add(userId);
+    }
+
+    private void unwatchContact(Long userId, Subscriber subscriber, Long contactId) {
+        subscriber.contactIds.remove(contactId);
+        removeWatcher(contactWatchers, contactId, userId);
+    }
+
+    private void watchServer(Long userId, Subscriber subscriber, Long serverId) {
+        subscriber.serverIds.add(serverId);
+        serverWatchers.computeIfAbsent(serverId, id -> new HashSet<>()).add(userId);
+    }
+
+    private void unwatchServer(Long userId, Subscriber subscriber, Long serverId) {
+        subscriber.serverIds.remove(serverId);
+        removeWatcher(serverWatchers, serverId, userId);
+    }
+
+    private static void removeWatcher(Map<Long, Set<Long>> index, Long key, Long userId) {
+        Set<Long> watchers = index.get(key);
+        if (watchers != null && watchers.remove(userId) && watchers.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static JwtPrincipal principal(AbstractSubProtocolEvent event) {
+        if (event.getUser() instanceof UsernamePasswordAuthenticationToken authentication
+                && authentication.getPrincipal() instanceof JwtPrincipal principal) {
+            return principal;
+        }
+        return null;
+    }
+
+    private static class Subscriber {
+        private final String name; // principal name, used for /user destinations
+        private final Set<Long> contactIds = new HashSet<>();
+        private final Set<Long> serverIds = new HashSet<>();
+        private List<Runnable> changesDuringLoad = new ArrayList<>(); // null once loaded
+
+        Subscriber(String name) {
+            this.name = name;
+        }
+
+        void apply(Runnable change) {
+            if (changesDuringLoad != null) {
+                changesDuringLoad.add(change);
+            } else {
+                change.run();
+            }
+        }
+    }
+}
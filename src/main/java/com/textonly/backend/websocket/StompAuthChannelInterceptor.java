@@ -0,0 +1,86 @@
+package com.textonly.backend.websocket;
+
+import com.textonly.backend.auth.JwtPrincipal;
+import com.textonly.backend.auth.JwtTokenProvider;
+import com.textonly.backend.service.ServerMembershipService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authenticates STOMP sessions with the same JWT used for REST (sent as the
+ * {@code Authorization} header of the CONNECT frame), keeps users on their own chat topic
+ * and lets them subscribe only to channels of servers they belong to.
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final String CHAT_TOPIC_PREFIX = "/topic/chat/";
+    private static final String CHANNEL_TOPIC_PREFIX = "/topic/channels/";
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final ServerMembershipService membershipService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            JwtPrincipal principal = jwtTokenProvider.resolvePrincipal(extractToken(accessor));
+            if (principal == null) {
+                throw new MessagingException("Invalid or missing token");
+            }
+            var authentication = new UsernamePasswordAuthenticationToken(principal, null, null);
+            authentication.setDetails(principal.getUserId());
+            accessor.setUser(authentication);
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            String destination = accessor.getDestination();
+            if (destination != null && destination.startsWith(CHAT_TOPIC_PREFIX)
+                    && !destination.equals(CHAT_TOPIC_PREFIX + principal(accessor).getUserId())) {
+                throw new MessagingException("Cannot subscribe to another user's chat");
+            }
+            if (destination != null && destination.startsWith(CHANNEL_TOPIC_PREFIX)
+                    && !isChannelMember(destination, principal(accessor).getUserId())) {
+                throw new MessagingException("Not a member of this channel's server");
+            }
+        }
+        return message;
+    }
+
+    public static JwtPrincipal principal(SimpMessageHeaderAccessor accessor) {
+        if (accessor.getUser() instanceof UsernamePasswordAuthenticationToken authentication
+                && authentication.getPrincipal() instanceof JwtPrincipal principal) {
+            return principal;
+        }
+        throw new MessagingException("Not authenticated");
+    }
+
+    private boolean isChannelMember(String destination, Long userId) {
+        try {
+            Long channelId = Long.valueOf(destination.substring(CHANNEL_TOPIC_PREFIX.length()));
+            return membershipService.isChannelMember(channelId, userId);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private String extractToken(StompHeaderAccessor accessor) {
+        String bearerToken = accessor.getFirstNativeHeader("Authorization");
+        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,85 @@
+package com.textonly.backend.websocket;
+
+import com.textonly.backend.auth.JwtPrincipal;
+import com.textonly.backend.dto.ChannelMessageDTO;
+import com.textonly.backend.dto.MessageDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pushes persisted messages to connected clients over the STOMP broker. Listeners run only
+ * after the surrounding transaction commits, so clients never see a message that was rolled back.
+ */
+@Component
+@RequiredArgsConstructor
+public class SyncPublisher {
+
+    public static final String MESSAGE_SENT = "message.sent";
+    public static final String CHANNEL_MESSAGE_SENT = "channel.message.sent";
+    public static final String MESSAGE_ACK = "message.ack";
+    public static final String MESSAGE_REJECTED = "message.rejected";
+    public static final String ACK_QUEUE = "/queue/acks";
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public static String chatTopic(Long userId) {
+        return "/topic/chat/" + userId;
+    }
+
+    public static String channelTopic(Long channelId) {
+        return "/topic/channels/" + channelId;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDirectMessageSent(DirectMessageSentEvent event) {
+        MessageDTO message = event.getMessage();
+        SyncMessage sync = syncMessage(MESSAGE_SENT, message.getSenderId(), message.getContent(), message);
+
+        // Receiver gets the message, sender's other sessions get the confirmation
+        messagingTemplate.convertAndSend(chatTopic(message.getReceiverId()), sync);
+        if (!message.getSenderId().equals(message.getReceiverId())) {
+            messagingTemplate.convertAndSend(chatTopic(message.getSenderId()), sync);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChannelMessageSent(ChannelMessageSentEvent event) {
+        ChannelMessageDTO message = event.getMessage();
+        messagingTemplate.convertAndSend(channelTopic(message.getChannelId()),
+                syncMessage(CHANNEL_MESSAGE_SENT, message.getSenderId(), message.getContent(), message));
+    }
+
+    /**
+     * Confirms to the sender (on /user/queue/acks) that the message sent over STOMP was stored.
+     */
+    public void sendAck(JwtPrincipal sender, String clientMessageId, Long messageId) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("clientMessageId", clientMessageId);
+        data.put("id", messageId);
+        messagingTemplate.convertAndSendToUser(sender.getName(), ACK_QUEUE,
+                syncMessage(MESSAGE_ACK, sender.getUserId(), null, data));
+    }
+
+    public void sendRejection(JwtPrincipal sender, String clientMessageId, String reason) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("clientMessageId", clientMessageId);
+        data.put("reason", reason);
+        messagingTemplate.convertAndSendToUser(sender.getName(), ACK_QUEUE,
+                syncMessage(MESSAGE_REJECTED, sender.getUserId(), null, data));
+    }
+
+    private SyncMessage syncMessage(String type, Long senderId, String content, Object data) {
+        return SyncMessage.builder()
+                .type(type)
+                .senderId(senderId)
+                .content(content)
+                .data(data)
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.textonly.backend.websocket;
+
+import com.textonly.backend.dto.InboundMessageDTO;
+import com.textonly.backend.service.MessageBatchWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Controller;
+
+/**
+ * Inbound STOMP send path. Frames are only queued here; MessageBatchWriter persists them
+ * in batches and acks the sender on /user/queue/acks once the batch has committed.
+ */
+@Controller
+@RequiredArgsConstructor
+public class WebSocketController {
+
+    private final MessageBatchWriter messageBatchWriter;
+
+    @MessageMapping("/chat/{receiverId}")
+    public void sendDirectMessage(@DestinationVariable Long receiverId,
+                                  @Payload InboundMessageDTO message,
+                                  SimpMessageHeaderAccessor accessor) {
+        messageBatchWriter.submitDirect(StompAuthChannelInterceptor.principal(accessor), receiverId, message);
+    }
+
+    @MessageMapping("/channels/{channelId}/messages")
+    public void sendChannelMessage(@DestinationVariable Long channelId,
+                                   @Payload InboundMessageDTO message,
+                                   SimpMessageHeaderAccessor accessor) {
+        messageBatchWriter.submitChannel(StompAuthChannelInterceptor.principal(accessor), channelId, message);
+    }
+}
@@ -0,0 +1,100 @@
+package com.textonly.backend.service;
+
+import com.textonly.backend.auth.JwtPrincipal;
+import com.textonly.backend.dto.InboundMessageDTO;
+import com.textonly.backend.model.User;
+import com.textonly.backend.repository.UserRepository;
+import com.textonly.backend.websocket.SyncPublisher;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Every STOMP message gets exactly one outcome: a stored message is never rejected, even if its
+ * ack fails, and a message rejected up front isn't rejected again when the batch insert fails.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MessageBatchWriterTest {
+
+    @Autowired
+    private MessageBatchWriter messageBatchWriter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private SyncPublisher syncPublisher;
+
+    @SpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void eachMessageGetsOneOutcome() throws InterruptedException {
+        User sender = createUser("sender");
+        User receiver = createUser("receiver");
+        JwtPrincipal principal = new JwtPrincipal(sender.getId(), sender.getEmail(), Instant.now().plusSeconds(3600));
+
+        // The first DM insert works, the next one fails
+        doCallRealMethod()
+                .doThrow(new DataAccessResourceFailureException("connection lost"))
+                .when(jdbcTemplate).batchUpdate(startsWith("INSERT INTO messages ("), any(BatchPreparedStatementSetter.class));
+
+        // The ack of the first message holds the writer until the next two are queued, then fails
+        CountDownLatch acking = new CountDownLatch(1);
+        CountDownLatch queued = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            acking.countDown();
+            queued.await(10, TimeUnit.SECONDS);
+            throw new IllegalStateException("session closed");
+        }).when(syncPublisher).sendAck(any(), eq("stored"), anyLong());
+
+        messageBatchWriter.submitDirect(principal, receiver.getId(), message("stored"));
+        assertTrue(acking.await(10, TimeUnit.SECONDS), "first message was not stored");
+        messageBatchWriter.submitDirect(principal, Long.MAX_VALUE, message("unknown"));
+        messageBatchWriter.submitDirect(principal, receiver.getId(), message("lost"));
+        queued.countDown();
+
+        verify(syncPublisher, timeout(10_000)).sendRejection(any(), eq("lost"), eq("not stored"));
+        verify(syncPublisher, times(1)).sendRejection(any(), eq("unknown"), anyString());
+        verify(syncPublisher).sendRejection(any(), eq("unknown"), eq("unknown recipient"));
+        verify(syncPublisher, never()).sendRejection(any(), eq("stored"), anyString());
+    }
+
+    private static InboundMessageDTO message(String clientMessageId) {
+        return new InboundMessageDTO(clientMessageId, "Salut " + clientMessageId, null);
+    }
+
+    private User createUser(String name) {
+        return userRepository.save(User.builder()
+                .email(name + "-" + UUID.randomUUID() + "@textonly.local")
+                .password("test")
+                .displayName(name)
+                .isActive(true)
+                .build());
+    }
+}
@@ -0,0 +1,117 @@
+package com.textonly.backend.service;
+
+import com.textonly.backend.auth.JwtPrincipal;
+import com.textonly.backend.dto.InboundMessageDTO;
+import com.textonly.backend.dto.MessageCreateDTO;
+import com.textonly.backend.dto.MessageDTO;
+import com.textonly.backend.model.ReadWatermark;
+import com.textonly.backend.model.User;
+import com.textonly.backend.repository.MessageRepository;
+import com.textonly.backend.repository.ReadWatermarkRepository;
+import com.textonly.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Read watermarks are message ids, so a send that starts after another one has finished must get
+ * a higher id no matter which path stored the message: REST ({@link MessageService}) or STOMP
+ * ({@link MessageBatchWriter}).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MessageIdOrderTest {
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private MessageBatchWriter messageBatchWriter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ReadWatermarkRepository readWatermarkRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void interleavedRestAndStompSendsGetIncreasingIds() throws InterruptedException {
+        User sender = createUser("sender");
+        User receiver = createUser("receiver");
+        JwtPrincipal principal = new JwtPrincipal(sender.getId(), sender.getEmail(), Instant.now().plusSeconds(3600));
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            if (i % 2 == 0) {
+                ids.add(sendRest(sender, receiver, "rest " + i));
+            } else {
+                ids.add(sendStomp(principal, receiver, "stomp " + i));
+            }
+        }
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i) > ids.get(i - 1), "ids out of send order: " + ids);
+        }
+
+        // Everything so far is read; a REST message sent afterwards must still count as unread
+        readWatermarkRepository.save(ReadWatermark.builder()
+                .userId(receiver.getId())
+                .peerId(sender.getId())
+                .lastReadMessageId(ids.get(ids.size() - 1))
+                .updatedAt(LocalDateTime.now())
+                .build());
+        Long later = sendRest(sender, receiver, "after read");
+
+        List<MessageDTO> unread = messageRepository.findUnreadMessages(receiver.getId());
+        assertEquals(List.of(later), unread.stream().map(MessageDTO::getId).toList());
+        List<Object[]> counts = messageRepository.countUnreadBySender(receiver.getId());
+        assertEquals(1, counts.size());
+        assertEquals(1L, ((Number) counts.get(0)[1]).longValue());
+    }
+
+    private Long sendRest(User sender, User receiver, String content) {
+        return messageService.sendMessage(sender.getId(), new MessageCreateDTO(receiver.getId(), content)).getId();
+    }
+
+    // The writer stores asynchronously; wait until it has, so the next send really comes after it
+    private Long sendStomp(JwtPrincipal sender, User receiver, String content) throws InterruptedException {
+        messageBatchWriter.submitDirect(sender, receiver.getId(),
+                new InboundMessageDTO(UUID.randomUUID().toString(), content, null));
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            List<Long> stored = jdbcTemplate.queryForList(
+                    "SELECT id FROM messages WHERE content = ?", Long.class, content);
+            if (!stored.isEmpty()) {
+                return stored.get(0);
+            }
+            Thread.sleep(20);
+        }
+        return fail("STOMP message was not stored: " + content);
+    }
+
+    private User createUser(String name) {
+        return userRepository.save(User.builder()
+                .email(name + "-" + UUID.randomUUID() + "@textonly.local")
+                .password("test")
+                .displayName(name)
+                .isActive(true)
+                .build());
+    }
+}
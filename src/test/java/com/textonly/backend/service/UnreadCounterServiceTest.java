@@ -0,0 +1,77 @@
+package com.textonly.backend.service;
+
+import com.textonly.backend.dto.MessageCreateDTO;
+import com.textonly.backend.model.User;
+import com.textonly.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A DM is counted for its receiver only once it has committed, and a read refreshing the
+ * counters meanwhile (from another request) must neither drop nor double-count it.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UnreadCounterServiceTest {
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void refreshDuringUncommittedSendKeepsTheMessage() {
+        User sender = createUser("sender");
+        User receiver = createUser("receiver");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            messageService.sendMessage(sender.getId(), new MessageCreateDTO(receiver.getId(), "salut"));
+            // The other request can't see the uncommitted row yet
+            CompletableFuture.runAsync(() -> unreadCounterService.refresh(receiver.getId()))
+                    .orTimeout(10, TimeUnit.SECONDS)
+                    .join();
+        });
+
+        assertEquals(1, unreadCounterService.getCounts(receiver.getId()).getTotal());
+        unreadCounterService.refresh(receiver.getId());
+        assertEquals(1, unreadCounterService.getCounts(receiver.getId()).getTotal());
+    }
+
+    @Test
+    void rolledBackSendIsNotCounted() {
+        User sender = createUser("sender");
+        User receiver = createUser("receiver");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            messageService.sendMessage(sender.getId(), new MessageCreateDTO(receiver.getId(), "salut"));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, unreadCounterService.getCounts(receiver.getId()).getTotal());
+    }
+
+    private User createUser(String name) {
+        return userRepository.save(User.builder()
+                .email(name + "-" + UUID.randomUUID() + "@textonly.local")
+                .password("test")
+                .displayName(name)
+                .isActive(true)
+                .build());
+    }
+}
@@ -0,0 +1,153 @@
+package com.textonly.backend.service;
+
+import com.textonly.backend.model.StoreItem;
+import com.textonly.backend.model.User;
+import com.textonly.backend.model.UserWallet;
+import com.textonly.backend.repository.StoreItemRepository;
+import com.textonly.backend.repository.UserRepository;
+import com.textonly.backend.repository.UserWalletRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Top-ups and purchases racing on one wallet must leave the balance, the totals, the inventory and
+ * the ledger agreeing with each other: no lost update, no overdraft, no gap or duplicate seq.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class WalletServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int CALLS_PER_THREAD = 50;
+    private static final int TOP_UP = 2;
+    // Costs more than a top-up brings in, so the balance runs out and some purchases are refused
+    private static final int PRICE = 3;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private StoreService storeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StoreItemRepository storeItemRepository;
+
+    @Autowired
+    private UserWalletRepository userWalletRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void parallelTopUpsAndPurchasesKeepWalletConsistent() throws Exception {
+        User user = userRepository.save(User.builder()
+                .email("wallet-" + UUID.randomUUID() + "@textonly.local")
+                .password("test")
+                .displayName("Wallet")
+                .isActive(true)
+                .build());
+        StoreItem item = storeItemRepository.save(StoreItem.builder()
+                .name("Trandafir")
+                .price(PRICE)
+                .type(StoreItem.ItemType.GIFT)
+                .isAvailable(true)
+                .build());
+        // Created up front: the wallet insert's ON CONFLICT (user_id) is PostgreSQL-only syntax
+        userWalletRepository.save(UserWallet.builder()
+                .user(user)
+                .coins(0)
+                .totalSpent(0)
+                .totalEarned(0)
+                .build());
+        Long userId = user.getId();
+        walletService.addCoins(userId, 20, "seed");
+
+        AtomicInteger purchased = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2 * THREADS);
+        List<Future<?>> calls = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                calls.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                        walletService.addCoins(userId, TOP_UP, "top-up");
+                    }
+                    return null;
+                }));
+                calls.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                        try {
+                            storeService.purchaseItem(userId, item.getId());
+                            purchased.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            assertEquals("Insufficient coins", e.getMessage());
+                            refused.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> call : calls) {
+                call.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long earned = 20 + (long) THREADS * CALLS_PER_THREAD * TOP_UP;
+        long spent = (long) purchased.get() * PRICE;
+        assertEquals(THREADS * CALLS_PER_THREAD, purchased.get() + refused.get());
+        assertTrue(refused.get() > 0, "no purchase ran out of coins");
+
+        UserWallet wallet = userWalletRepository.findByUserId(userId).orElseThrow();
+        assertEquals(earned - spent, wallet.getCoins().longValue());
+        assertEquals(earned, wallet.getTotalEarned().longValue());
+        assertEquals(spent, wallet.getTotalSpent().longValue());
+        assertTrue(wallet.getCoins() >= 0);
+
+        assertEquals(earned, sum(userId, "TOP_UP"));
+        assertEquals(spent, sum(userId, "PURCHASE"));
+        assertEquals((long) purchased.get(), jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM user_inventory WHERE user_id = ?", Long.class, userId));
+
+        // One ledger entry per successful call, numbered 1..lastSeq without gaps or duplicates
+        long entries = 1 + (long) THREADS * CALLS_PER_THREAD + purchased.get();
+        assertEquals(entries, wallet.getLastSeq());
+        assertEquals(entries, jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT seq) FROM transactions WHERE user_id = ?", Long.class, userId));
+        assertEquals(entries, jdbcTemplate.queryForObject(
+                "SELECT MAX(seq) FROM transactions WHERE user_id = ?", Long.class, userId));
+        assertEquals(wallet.getCoins(), jdbcTemplate.queryForObject(
+                "SELECT balance_after FROM transactions WHERE user_id = ? AND seq = ?",
+                Integer.class, userId, entries));
+    }
+
+    private long sum(Long userId, String type) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(amount), 0) FROM transactions WHERE user_id = ? AND type = ?",
+                Long.class, userId, type);
+    }
+}